@@ -0,0 +1,35 @@
+package org.minimax.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Entry point of the benchmarks jar, taking the usual JMH command line options.<br>
+ * The GC profiler is always added, so that results report the allocation rate next to the throughput.
+ */
+public final class BenchmarkMain {
+	private BenchmarkMain() {}
+
+	public static final int CACHE_SIZE_MB = 16;
+
+	public static void main(String[] args) throws CommandLineOptionException, IOException, RunnerException {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListProfilers()) {
+			Main.main(args);
+			return;
+		}
+
+		new Runner(new OptionsBuilder()
+				.parent(commandLineOptions)
+				.addProfiler(GCProfiler.class)
+				.build()
+		).run();
+	}
+}
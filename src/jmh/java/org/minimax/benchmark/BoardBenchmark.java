@@ -0,0 +1,117 @@
+package org.minimax.benchmark;
+
+import org.minimax.ArrayBoard;
+import org.minimax.BitBoard;
+import org.minimax.Board;
+import org.minimax.BoardCodec;
+import org.minimax.Color;
+import org.minimax.Constants;
+import org.minimax.LargeBitBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the board operations used at each node of the search, on each board implementation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BoardBenchmark {
+
+	public enum Implementation {
+		BIT_BOARD,
+		ARRAY_BOARD,
+		LARGE_BIT_BOARD,
+	}
+
+	// Parameters are public and unprefixed as JMH injects them by name and prints them in the results
+	@Param
+	public Implementation implementation;
+
+	@Param({"OPENING", "MIDGAME", "ENDGAME"})
+	public ReferencePosition position;
+
+	private Board m_board;
+	private Color m_nextColor;
+	private int m_lastMove;
+	private int m_nextMove;
+	private String m_serialized;
+	private long m_encoded;
+
+	@Setup
+	public void setUp() {
+		final int width = Constants.DEFAULT_WIDTH;
+		final int height = Constants.DEFAULT_HEIGHT;
+		final int countToWin = Constants.DEFAULT_COUNT_TO_WIN;
+		m_board = position.playOn(switch (implementation) {
+			case BIT_BOARD -> new BitBoard(width, height, countToWin, 2);
+			case ARRAY_BOARD -> new ArrayBoard(width, height, countToWin, 2);
+			case LARGE_BIT_BOARD -> new LargeBitBoard(width, height, countToWin, 2);
+		});
+		m_nextColor = position.getNextColor();
+		m_lastMove = position.getLastMove();
+		m_nextMove = m_board.getPlayableColumns().get(0);
+		m_serialized = m_board.serialize();
+		m_encoded = BoardCodec.toKey(m_board);
+	}
+
+	@Benchmark
+	public long playCancel() {
+		m_board.play(m_nextColor, m_nextMove);
+		final long key = m_board.getKey();
+		m_board.cancel(m_nextMove);
+		return key;
+	}
+
+	@Benchmark
+	public boolean hasWon() {
+		return m_board.hasWon(m_lastMove);
+	}
+
+	@Benchmark
+	public Optional<Color> getWinner() {
+		return m_board.getWinner();
+	}
+
+	@Benchmark
+	public Board copy() {
+		return m_board.copy();
+	}
+
+	@Benchmark
+	public String serialize() {
+		return m_board.serialize();
+	}
+
+	@Benchmark
+	public Board unserialize() {
+		m_board.unserialize(m_serialized);
+		return m_board;
+	}
+
+	@Benchmark
+	public long encode() {
+		return BoardCodec.toKey(m_board);
+	}
+
+	@Benchmark
+	public Board decode() {
+		BoardCodec.fromKey(m_encoded, m_board);
+		return m_board;
+	}
+}
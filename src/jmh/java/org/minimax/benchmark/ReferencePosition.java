@@ -0,0 +1,58 @@
+package org.minimax.benchmark;
+
+import org.minimax.Board;
+import org.minimax.Color;
+import org.minimax.Constants;
+
+import java.util.Arrays;
+
+/**
+ * Corpus of standard 7x6 positions, from the empty board to the endgame, given as the columns played alternately by
+ * the two players.<br>
+ * None of them is won yet, so they can all be searched.
+ */
+public enum ReferencePosition {
+	EMPTY(""),
+	OPENING("3,3,2,4"),
+	EARLY_MIDGAME("3,3,2,4,4,2,3,1,5,5"),
+	MIDGAME("3,6,4,1,0,3,1,3,3,1,0,5,6,6,1,3,1,0"),
+	ENDGAME("3,6,4,1,0,3,1,3,3,1,0,5,6,6,1,3,1,0,1,3,2,0,5,4,0,5"),
+	;
+
+	private final int[] m_moves;
+
+	ReferencePosition(final String moves) {
+		m_moves = moves.isEmpty() ? new int[0] : Arrays.stream(moves.split(",")).mapToInt(Integer::parseInt).toArray();
+	}
+
+	/**
+	 * Returns a new board with the moves of this position played.
+	 */
+	public Board create() {
+		return playOn(Board.create(Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, Constants.DEFAULT_COUNT_TO_WIN, 2));
+	}
+
+	/**
+	 * Plays the moves of this position on the given empty 7x6 board, and returns it.
+	 */
+	public Board playOn(final Board board) {
+		for (int i = 0; i < m_moves.length; i++) {
+			board.play(Color.COLORS.get(i % 2), m_moves[i]);
+		}
+		return board;
+	}
+
+	/**
+	 * Returns the column of the last move, or -1 for the empty board.
+	 */
+	public int getLastMove() {
+		return m_moves.length == 0 ? -1 : m_moves[m_moves.length - 1];
+	}
+
+	/**
+	 * Returns the color of the player to move.
+	 */
+	public Color getNextColor() {
+		return Color.COLORS.get(m_moves.length % 2);
+	}
+}
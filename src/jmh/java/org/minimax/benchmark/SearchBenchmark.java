@@ -0,0 +1,59 @@
+package org.minimax.benchmark;
+
+import org.minimax.Board;
+import org.minimax.Color;
+import org.minimax.player.MinimaxPlayer;
+import org.minimax.player.SimpleMinimaxPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duration of a whole fixed depth minimax move on the reference positions.<br>
+ * The transposition table is cleared at the start of each move, so every invocation searches the same tree.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SearchBenchmark {
+
+	// Parameters are public and unprefixed as JMH injects them by name and prints them in the results
+	@Param({"EMPTY", "OPENING", "EARLY_MIDGAME", "MIDGAME", "ENDGAME"})
+	public ReferencePosition position;
+
+	@Param({"8", "12"})
+	public int depth;
+
+	@Param({"1"})
+	public int threads;
+
+	private Board m_board;
+	private MinimaxPlayer m_player;
+
+	@Setup
+	public void setUp() {
+		m_board = position.create();
+		final Color color = position.getNextColor();
+		final List<Color> players = List.of(Color.COLORS.get(0), Color.COLORS.get(1));
+		m_player = new SimpleMinimaxPlayer(color, players, depth, BenchmarkMain.CACHE_SIZE_MB, threads);
+	}
+
+	@Benchmark
+	public int search() {
+		return m_player.play(m_board);
+	}
+}
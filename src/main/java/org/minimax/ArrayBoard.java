@@ -0,0 +1,114 @@
+package org.minimax;
+
+import java.util.*;
+
+/**
+ * Board storing one {@link Color} per cell. Works for any geometry, but is the slowest implementation.
+ */
+public class ArrayBoard extends Board {
+
+	private final Color[][] m_board;
+
+	public ArrayBoard(final int width, final int height, final int countToWin, final int playerCount) {
+		super(width, height, countToWin, playerCount);
+		m_board = new Color[height][width];
+		clearCells();
+	}
+
+	@Override
+	public Board copy() {
+		final ArrayBoard copy = new ArrayBoard(m_width, m_height, m_countToWin, m_colors.size());
+		copyStateTo(copy);
+		for (int y = 0; y < m_height; y++) {
+			System.arraycopy(m_board[y], 0, copy.m_board[y], 0, m_width);
+		}
+		return copy;
+	}
+
+	// region ===== CELLS =====
+
+	@Override
+	protected void placePiece(final Color color, final int column, final int row) {
+		m_board[row][column] = color;
+	}
+
+	@Override
+	protected Color removePiece(final int column, final int row) {
+		final Color color = m_board[row][column];
+		m_board[row][column] = Color.NONE;
+		return color;
+	}
+
+	@Override
+	protected void clearCells() {
+		for (final Color[] row : m_board) {
+			Arrays.fill(row, Color.NONE);
+		}
+	}
+
+	@Override
+	public Color getCell(final int column, final int row) {
+		return m_board[row][column];
+	}
+
+	// endregion
+
+	@Override
+	public boolean hasWon(final int column) {
+		if (m_columnHeights[column] == 0) return false;
+
+		final int cellX = column;
+		final int cellY = m_columnHeights[column] - 1;
+		final Color color = m_board[cellY][cellX];
+		if (m_playedCount[color.getId()] < m_countToWin) return false;
+
+		return countAligned(color, cellX, cellY, 1, 0)
+				|| countAligned(color, cellX, cellY, 0, 1)
+				|| countAligned(color, cellX, cellY, 1, 1)
+				|| countAligned(color, cellX, cellY, 1, -1);
+	}
+
+	/**
+	 * Returns whether there are enough pieces of the given color aligned in the given direction through the given cell.
+	 */
+	private boolean countAligned(final Color color, final int cellX, final int cellY, final int dx, final int dy) {
+		int count = 0;
+		for (int k = -(m_countToWin - 1); k < m_countToWin; k++) {
+			final int x = cellX + k * dx;
+			final int y = cellY + k * dy;
+			if (x < 0 || x >= m_width || y < 0 || y >= m_height) continue;
+			count = (m_board[y][x] == color ? count + 1 : 0);
+			if (count >= m_countToWin) return true;
+		}
+		return false;
+	}
+
+	@Override
+	public Optional<Color> getWinner() {
+		for (int y = 0; y < m_height; y++) {
+			for (int x = 0; x < m_width; x++) {
+				final Color color = m_board[y][x];
+				if (color == Color.NONE) continue;
+
+				if (isLineStart(color, x, y, 1, 0)
+						|| isLineStart(color, x, y, 0, 1)
+						|| isLineStart(color, x, y, 1, 1)
+						|| isLineStart(color, x, y, 1, -1)) {
+					return Optional.of(color);
+				}
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	private boolean isLineStart(final Color color, final int cellX, final int cellY, final int dx, final int dy) {
+		for (int k = 1; k < m_countToWin; k++) {
+			final int x = cellX + k * dx;
+			final int y = cellY + k * dy;
+			if (x < 0 || x >= m_width || y < 0 || y >= m_height) return false;
+			if (m_board[y][x] != color) return false;
+		}
+		return true;
+	}
+}
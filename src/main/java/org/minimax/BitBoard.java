@@ -0,0 +1,236 @@
+package org.minimax;
+
+import java.util.BitSet;
+import java.util.Optional;
+
+/**
+ * Board storing one 64 bits bitboard per player, for boards with at most 64 cells once a sentinel row is added.<br>
+ * Each column uses (height + 1) consecutive bits, from the bottom cell to an always empty sentinel bit :
+ * <pre>
+ *  6 13 20 27 34 41 48
+ *  5 12 19 26 33 40 47
+ *  4 11 18 25 32 39 46
+ *  3 10 17 24 31 38 45
+ *  2  9 16 23 30 37 44
+ *  1  8 15 22 29 36 43
+ *  0  7 14 21 28 35 42
+ * </pre>
+ * The sentinel row prevents alignments from wrapping around columns, so they can be detected for any count to win
+ * with shifts along the four directions.
+ */
+public class BitBoard extends Board {
+
+	private final int m_columnBits;
+	private final long m_bottomRow;
+	private final long m_boardCells;
+	private final long[] m_pieces;
+	/**
+	 * Cells following a run of each length of pieces, reused by {@link #getWinningCells(long)}.
+	 */
+	private final long[] m_runsBefore;
+	private long m_mask;
+
+	public BitBoard(final int width, final int height, final int countToWin, final int playerCount) {
+		super(width, height, countToWin, playerCount);
+		if (!fits(width, height)) {
+			throw new IllegalArgumentException("Board too large for a bitboard: " + width + 'x' + height);
+		}
+		m_columnBits = height + 1;
+		long bottomRow = 0L;
+		for (int x = 0; x < width; x++) {
+			bottomRow |= 1L << (x * m_columnBits);
+		}
+		m_bottomRow = bottomRow;
+		m_boardCells = bottomRow * ((1L << height) - 1);
+		m_pieces = new long[playerCount];
+		m_runsBefore = new long[countToWin];
+		m_mask = 0L;
+	}
+
+	public static boolean fits(final int width, final int height) {
+		return width * (height + 1) <= Long.SIZE;
+	}
+
+	@Override
+	public Board copy() {
+		final BitBoard copy = new BitBoard(m_width, m_height, m_countToWin, m_colors.size());
+		copyStateTo(copy);
+		System.arraycopy(m_pieces, 0, copy.m_pieces, 0, m_pieces.length);
+		copy.m_mask = m_mask;
+		return copy;
+	}
+
+	// region ===== CELLS =====
+
+	private long bit(final int column, final int row) {
+		return 1L << (column * m_columnBits + row);
+	}
+
+	@Override
+	protected void placePiece(final Color color, final int column, final int row) {
+		final long bit = bit(column, row);
+		m_pieces[color.getId()] |= bit;
+		m_mask |= bit;
+	}
+
+	@Override
+	protected Color removePiece(final int column, final int row) {
+		final long bit = bit(column, row);
+		m_mask &= ~bit;
+		for (int id = 0; id < m_pieces.length; id++) {
+			if ((m_pieces[id] & bit) != 0) {
+				m_pieces[id] &= ~bit;
+				return m_colors.get(id);
+			}
+		}
+		throw new IllegalStateException("No piece in column " + column + " at row " + row);
+	}
+
+	@Override
+	protected void clearCells() {
+		for (int id = 0; id < m_pieces.length; id++) {
+			m_pieces[id] = 0L;
+		}
+		m_mask = 0L;
+	}
+
+	@Override
+	public Color getCell(final int column, final int row) {
+		final long bit = bit(column, row);
+		if ((m_mask & bit) == 0) return Color.NONE;
+		for (int id = 0; id < m_pieces.length; id++) {
+			if ((m_pieces[id] & bit) != 0) return m_colors.get(id);
+		}
+		return Color.NONE;
+	}
+
+	// endregion
+
+	/**
+	 * Returns the key of the position for {@link BoardCodec} : the pieces of the second player, plus a bit above the
+	 * top piece of each column, which adding the bottom row to the mask gives in a single addition.
+	 */
+	long getPositionKey() {
+		return m_pieces[1] + m_mask + m_bottomRow;
+	}
+
+	@Override
+	public BitSet getBoardBitset() {
+		return BitSet.valueOf(m_pieces);
+	}
+
+	// region ===== ALIGNMENTS =====
+
+	@Override
+	public boolean hasWon(final int column) {
+		if (m_columnHeights[column] == 0) return false;
+
+		final long bit = bit(column, m_columnHeights[column] - 1);
+		for (int id = 0; id < m_pieces.length; id++) {
+			if ((m_pieces[id] & bit) != 0) {
+				return m_playedCount[id] >= m_countToWin && isAligned(m_pieces[id]);
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Optional<Color> getWinner() {
+		for (int id = 0; id < m_pieces.length; id++) {
+			if (m_playedCount[id] >= m_countToWin && isAligned(m_pieces[id])) return Optional.of(m_colors.get(id));
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Returns whether the given bitboard contains at least count to win pieces in a row, in any direction.
+	 */
+	private boolean isAligned(final long pieces) {
+		return isAligned(pieces, 1) // Vertical
+				|| isAligned(pieces, m_columnBits) // Horizontal
+				|| isAligned(pieces, m_columnBits + 1) // Diagonal (bottom left -> top right)
+				|| isAligned(pieces, m_columnBits - 1); // Diagonal (top left -> bottom right)
+	}
+
+	/**
+	 * Each iteration keeps the bits starting a run of {@code length} pieces, and at most doubles that length.
+	 */
+	private boolean isAligned(final long pieces, final int shift) {
+		long runs = pieces;
+		int length = 1;
+		while (length < m_countToWin) {
+			final int step = Math.min(length, m_countToWin - length);
+			if (step * shift >= Long.SIZE) return false;
+			runs &= runs >>> (step * shift);
+			if (runs == 0) return false;
+			length += step;
+		}
+		return runs != 0;
+	}
+
+	// endregion
+
+	// region ===== THREATS =====
+
+	@Override
+	public long getWinningColumns(final Color color) {
+		return toColumns(getWinningCells(m_pieces[color.getId()]) & getPlayableCells());
+	}
+
+	@Override
+	public long getColumnsGivingWin(final Color color) {
+		return toColumns(getWinningCells(m_pieces[color.getId()]) & (getPlayableCells() << 1) & m_boardCells);
+	}
+
+	/**
+	 * Returns the lowest empty cell of each column which is not full.
+	 */
+	private long getPlayableCells() {
+		return (m_mask + m_bottomRow) & m_boardCells;
+	}
+
+	private long toColumns(long cells) {
+		long columns = 0L;
+		while (cells != 0) {
+			columns |= 1L << (Long.numberOfTrailingZeros(cells) / m_columnBits);
+			cells &= cells - 1;
+		}
+		return columns;
+	}
+
+	/**
+	 * Returns the cells, empty or not, where a piece would make count to win pieces in a row with the given ones : for
+	 * each direction, the cells following a run of j pieces and preceding a run of (count to win - 1 - j) pieces.
+	 */
+	private long getWinningCells(final long pieces) {
+		return getWinningCells(pieces, 1) // Vertical
+				| getWinningCells(pieces, m_columnBits) // Horizontal
+				| getWinningCells(pieces, m_columnBits + 1) // Diagonal (bottom left -> top right)
+				| getWinningCells(pieces, m_columnBits - 1); // Diagonal (top left -> bottom right)
+	}
+
+	private long getWinningCells(final long pieces, final int shift) {
+		final long[] runsBefore = m_runsBefore;
+		runsBefore[0] = -1L;
+		for (int length = 1; length < m_countToWin; length++) {
+			runsBefore[length] = runsBefore[length - 1] & shiftLeft(pieces, length * shift);
+		}
+		long cells = 0L;
+		long runsAfter = -1L;
+		for (int length = 0; length < m_countToWin; length++) {
+			if (length > 0) runsAfter &= shiftRight(pieces, length * shift);
+			cells |= runsBefore[m_countToWin - 1 - length] & runsAfter;
+		}
+		return cells;
+	}
+
+	private static long shiftLeft(final long bits, final int shift) {
+		return shift >= Long.SIZE ? 0L : bits << shift;
+	}
+
+	private static long shiftRight(final long bits, final int shift) {
+		return shift >= Long.SIZE ? 0L : bits >>> shift;
+	}
+
+	// endregion
+}
@@ -2,75 +2,90 @@ package org.minimax;
 
 import java.util.*;
 
-public class Board {
+/**
+ * Connect Four board of any size, for up to {@link Constants#MAX_PLAYER_COUNT} players.<br>
+ * Use {@link #create(int, int, int, int)} to get the fastest implementation for the given geometry.<br>
+ * Rows are numbered from the bottom of the board (row 0) to the top (row height - 1).
+ */
+public abstract class Board {
 
-	private final int m_width;
-	private final int m_height;
-	private final int m_countToWin;
+	protected final int m_width;
+	protected final int m_height;
+	protected final int m_countToWin;
 
 	private final int m_bitsByColor;
-	private final Color[][] m_board;
-	private final BitSet m_boardBitset;
-	private final int[] m_columnHeights;
-	private final int[] m_playedCount;
+	protected final int[] m_columnHeights;
+	protected final int[] m_playedCount;
+	private int m_pieceCount;
+	private long m_key;
+	private long m_mirrorKey;
+	private WindowTracker m_windows;
 
-	private final List<Color> m_colors;
+	protected final List<Color> m_colors;
 
-	public Board(final int width, final int height, final int countToWin, final int playerCount) {
+	protected Board(final int width, final int height, final int countToWin, final int playerCount) {
 		m_width = width;
 		m_height = height;
 		m_countToWin = countToWin;
 
 		m_bitsByColor = Integer.SIZE - Integer.numberOfLeadingZeros(playerCount);
-		m_board = new Color[height][width];
-		m_boardBitset = new BitSet(m_bitsByColor * m_width * m_height);
 		m_columnHeights = new int[width];
 		m_playedCount = new int[playerCount];
+		m_pieceCount = 0;
+		m_key = 0L;
+		m_mirrorKey = 0L;
 
 		m_colors = Color.COLORS.subList(0, playerCount);
-
-		resetBoard();
 	}
 
-	private void resetBoard() {
-		for (int x = 0; x < m_width; x++) {
-			for (int y = 0; y < m_height; y++) {
-				m_board[y][x] = Color.NONE;
-			}
-
-			m_columnHeights[x] = 0;
-		}
-
-		m_boardBitset.clear();
+	public static Board create(final int width, final int height, final int countToWin, final int playerCount) {
+		if (BitBoard.fits(width, height)) return new BitBoard(width, height, countToWin, playerCount);
+		// Column masks hold at most 64 columns
+		if (width <= Long.SIZE) return new LargeBitBoard(width, height, countToWin, playerCount);
+		return new ArrayBoard(width, height, countToWin, playerCount);
 	}
 
 	/**
 	 * The copy must share no reference with the original.
 	 */
-	public Board copy() {
-		final Board copy = new Board(m_width, m_height, m_countToWin, m_colors.size());
+	public abstract Board copy();
+
+	/**
+	 * Copies the state common to all implementations into the given board, which must have the same geometry.
+	 */
+	protected void copyStateTo(final Board copy) {
 		System.arraycopy(m_columnHeights, 0, copy.m_columnHeights, 0, m_columnHeights.length);
-		for (int y = 0; y < m_height; y++) {
-			System.arraycopy(m_board[y], 0, copy.m_board[y], 0, m_width);
-		}
 		System.arraycopy(m_playedCount, 0, copy.m_playedCount, 0, m_playedCount.length);
-		copy.m_boardBitset.clear();
-		copy.m_boardBitset.or(m_boardBitset);
-		return copy;
+		copy.m_pieceCount = m_pieceCount;
+		copy.m_key = m_key;
+		copy.m_mirrorKey = m_mirrorKey;
+		copy.m_windows = m_windows == null ? null : m_windows.copy();
+	}
+
+	void resetBoard() {
+		Arrays.fill(m_columnHeights, 0);
+		Arrays.fill(m_playedCount, 0);
+		m_pieceCount = 0;
+		m_key = 0L;
+		m_mirrorKey = 0L;
+		if (m_windows != null) m_windows.clear();
+		clearCells();
 	}
 
 	// region ===== PLAY =====
 
 	public boolean play(final Color color, final int column) {
 		if (m_columnHeights[column] == m_height) return false;
-		final int height = m_columnHeights[column];
-		m_board[m_height - 1 - height][column] = color;
+		placePiece(color, column, m_columnHeights[column]);
+		m_key ^= Zobrist.key(color, cellIndex(column, m_columnHeights[column]));
+		m_mirrorKey ^= Zobrist.key(color, cellIndex(mirrorColumn(column), m_columnHeights[column]));
+		if (m_windows != null) m_windows.place(color.getId(), cellIndex(column, m_columnHeights[column]));
 		m_columnHeights[column]++;
 		m_playedCount[color.getId()]++;
-		updateBitSet(column, m_height - 1 - height);
+		m_pieceCount++;
 		return true;
 	}
-	
+
 	public boolean canPlay(final int column) {
 		return m_columnHeights[column] < m_height;
 	}
@@ -87,180 +102,190 @@ public class Board {
 
 	public boolean cancel(final int column) {
 		if (m_columnHeights[column] == 0) return false;
-		final int height = m_columnHeights[column];
-		final Color color = m_board[m_height - height][column];
-		m_board[m_height - height][column] = Color.NONE;
 		m_columnHeights[column]--;
+		final Color color = removePiece(column, m_columnHeights[column]);
+		m_key ^= Zobrist.key(color, cellIndex(column, m_columnHeights[column]));
+		m_mirrorKey ^= Zobrist.key(color, cellIndex(mirrorColumn(column), m_columnHeights[column]));
+		if (m_windows != null) m_windows.remove(color.getId(), cellIndex(column, m_columnHeights[column]));
 		m_playedCount[color.getId()]--;
-		updateBitSet(column, m_height - height);
+		m_pieceCount--;
 		return true;
 	}
 
 	public boolean isFull() {
-		for (int x = 0; x < m_width; x++) {
-			if (canPlay(x)) return false;
-		}
-		return true;
+		return m_pieceCount == m_width * m_height;
 	}
 
-	// endregion
+	public int getPieceCount() {
+		return m_pieceCount;
+	}
 
-	// region ===== BIT SET =====
+	public int getColumnHeight(final int column) {
+		return m_columnHeights[column];
+	}
 
-	private void updateBitSet(final int x, final int y) {
-		final int value = m_board[y][x].ordinal();
-		final int p = y * m_width + x;
-		for (int k = 0; k < m_bitsByColor; k++) {
-			m_boardBitset.set(m_bitsByColor * p + k, ((value >> k) & 1) > 0);
-		}
+	/**
+	 * Returns the Zobrist key of the position, which identifies it for caching and deduplication.<br>
+	 * It is updated at each play and cancel, so getting it costs nothing.
+	 */
+	public long getKey() {
+		return m_key;
 	}
 
-	public BitSet getBoardBitset() {
-		return (BitSet) m_boardBitset.clone();
+	/**
+	 * Returns the key shared by the position and its mirror image, so that caches store them only once.<br>
+	 * Moves stored with it must go through {@link #mirrorColumn(int)} when {@link #isCanonicalMirrored()}.
+	 */
+	public long getCanonicalKey() {
+		return Math.min(m_key, m_mirrorKey);
 	}
 
-	// endregion
+	/**
+	 * Returns whether the canonical key is the one of the mirror image of the position rather than the position itself.
+	 */
+	public boolean isCanonicalMirrored() {
+		return m_mirrorKey < m_key;
+	}
 
 	/**
-	 * Returns whether the last move of the given column resulted in a win.
+	 * Returns the column matching the given one in the mirror image of the board.
 	 */
-	public boolean hasWon(final int column) {
-		if (m_columnHeights[column] == 0) return false;
+	public int mirrorColumn(final int column) {
+		return m_width - 1 - column;
+	}
 
-		final int cellX = column;
-		final int cellY = m_height - m_columnHeights[column];
-		final Color color = m_board[cellY][cellX];
-		if (m_playedCount[color.getId()] < m_countToWin) return false;
+	/**
+	 * Returns the mask of the columns matching the given ones in the mirror image of the board, for boards up to 64
+	 * columns.
+	 */
+	public long mirrorColumns(final long columns) {
+		return Long.reverse(columns) >>> (Long.SIZE - m_width);
+	}
 
-		// Row
-		int count = 0;
-		for (int x = cellX - (m_countToWin - 1); x < cellX + m_countToWin; x++) {
-			if (x < 0 || x >= m_width) continue;
-			count = (m_board[cellY][x] == color ? count + 1 : 0);
-			if (count >= m_countToWin) return true;
+	/**
+	 * Returns the window counts of the position. They are built from the cells on the first call, and then updated
+	 * at each play and cancel, which makes them a bit slower. Copies of the board keep them.
+	 */
+	public WindowTracker getWindows() {
+		if (m_windows == null) {
+			final WindowTracker windows = new WindowTracker(m_width, m_height, m_countToWin, m_colors.size());
+			for (int x = 0; x < m_width; x++) {
+				for (int y = 0; y < m_columnHeights[x]; y++) {
+					windows.place(getCell(x, y).getId(), cellIndex(x, y));
+				}
+			}
+			m_windows = windows;
 		}
+		return m_windows;
+	}
 
-		// Column
-		count = 0;
-		for (int y = cellY - (m_countToWin - 1); y < cellY + m_countToWin; y++) {
-			if (y < 0 || y >= m_height) continue;
-			count = (m_board[y][cellX] == color ? count + 1 : 0);
-			if (count >= m_countToWin) return true;
-		}
+	private int cellIndex(final int column, final int row) {
+		return column * m_height + row;
+	}
 
-		// Diagonal (top left -> bottom right)
-		count = 0;
-		for (int k = -(m_countToWin - 1); k < m_countToWin; k++) {
-			final int x = cellX + k;
-			final int y = cellY + k;
-			if (x < 0 || x >= m_width || y < 0 || y >= m_height) continue;
-			count = (m_board[y][x] == color ? count + 1 : 0);
-			if (count >= m_countToWin) return true;
-		}
+	// endregion
 
-		// Diagonal (top right -> bottom left)
-		count = 0;
-		for (int k = -(m_countToWin - 1); k < m_countToWin; k++) {
-			final int x = cellX + k;
-			final int y = cellY - k;
-			if (x < 0 || x >= m_width || y < 0 || y >= m_height) continue;
-			count = (m_board[y][x] == color ? count + 1 : 0);
-			if (count >= m_countToWin) return true;
-		}
+	// region ===== CELLS =====
 
-		return false;
-	}
+	/**
+	 * Puts a piece of the given color in the given empty cell.
+	 */
+	protected abstract void placePiece(final Color color, final int column, final int row);
 
-	public Optional<Color> getWinner() {
-		final int[] count = new int[m_colors.size()];
+	/**
+	 * Removes the piece of the given cell and returns its color.
+	 */
+	protected abstract Color removePiece(final int column, final int row);
 
-		// Rows
-		for (int y = 0; y < m_height; y++) {
-			Arrays.fill(count, 0);
+	protected abstract void clearCells();
+
+	/**
+	 * Returns the color of the given cell, or {@link Color#NONE} if it is empty.
+	 */
+	public abstract Color getCell(final int column, final int row);
 
+	// endregion
+
+	// region ===== BIT SET =====
+
+	/**
+	 * Returns a bit set uniquely identifying the position among boards of the same implementation and geometry.
+	 */
+	public BitSet getBoardBitset() {
+		final BitSet bitset = new BitSet(m_bitsByColor * m_width * m_height);
+		for (int y = 0; y < m_height; y++) {
 			for (int x = 0; x < m_width; x++) {
-				final Color cell = m_board[y][x];
-				for (final Color color : m_colors) {
-					if (cell == color) {
-						count[cell.getId()]++;
-					} else {
-						count[cell.getId()] = 0;
-					}
+				final int value = getCell(x, m_height - 1 - y).ordinal();
+				final int p = y * m_width + x;
+				for (int k = 0; k < m_bitsByColor; k++) {
+					if (((value >> k) & 1) > 0) bitset.set(m_bitsByColor * p + k);
 				}
 			}
-
-			for (final Color color : m_colors) {
-				if (count[color.getId()] >= m_countToWin) return Optional.of(color);
-			}
 		}
+		return bitset;
+	}
 
-		// Columns
-		for (int x = 0; x < m_width; x++) {
-			Arrays.fill(count, 0);
-
-			for (int y = 0; y < m_height; y++) {
-				final Color cell = m_board[y][x];
-				for (final Color color : m_colors) {
-					if (cell == color) {
-						count[cell.getId()]++;
-					} else {
-						count[cell.getId()] = 0;
-					}
-				}
-			}
+	// endregion
 
-			for (final Color color : m_colors) {
-				if (count[color.getId()] >= m_countToWin) return Optional.of(color);
-			}
-		}
+	/**
+	 * Returns whether the last move of the given column resulted in a win.
+	 */
+	public abstract boolean hasWon(final int column);
 
-		// Diagonals (top left -> bottom right)
-		for (int y = 0; y < m_height - (m_countToWin - 1); y++) {
-			for (int x = 0; x < m_width - (m_countToWin - 1); x++) {
-				Arrays.fill(count, 0);
-
-				for (int k = 0; k < m_countToWin; k++) {
-					final Color cell = m_board[y + k][x + k];
-					for (final Color color : m_colors) {
-						if (cell == color) {
-							count[cell.getId()]++;
-						} else {
-							count[cell.getId()] = 0;
-						}
-					}
-				}
+	public abstract Optional<Color> getWinner();
 
-				for (final Color color : m_colors) {
-					if (count[color.getId()] >= m_countToWin) return Optional.of(color);
-				}
-			}
-		}
+	// region ===== THREATS =====
 
-		// Diagonals (top right -> bottom left)
-		for (int y = m_countToWin - 1; y < m_height; y++) {
-			for (int x = 0; x < m_width - (m_countToWin - 1); x++) {
-				Arrays.fill(count, 0);
-
-				for (int k = 0; k < m_countToWin; k++) {
-					final Color cell = m_board[y - k][x + k];
-					for (final Color color : m_colors) {
-						if (cell == color) {
-							count[cell.getId()]++;
-						} else {
-							count[cell.getId()] = 0;
-						}
-					}
-				}
+	/**
+	 * Returns the mask of the columns where the given color would win at once, for boards up to 64 columns.
+	 */
+	public long getWinningColumns(final Color color) {
+		long columns = 0L;
+		for (int x = 0; x < m_width; x++) {
+			if (canPlay(x) && isWinningCell(color, x, m_columnHeights[x])) columns |= 1L << x;
+		}
+		return columns;
+	}
 
-				for (final Color color : m_colors) {
-					if (count[color.getId()] >= m_countToWin) return Optional.of(color);
-				}
-			}
+	/**
+	 * Returns the mask of the columns where a piece of another color would let the given color win at once right
+	 * above it, for boards up to 64 columns.
+	 */
+	public long getColumnsGivingWin(final Color color) {
+		long columns = 0L;
+		for (int x = 0; x < m_width; x++) {
+			if (m_columnHeights[x] + 1 < m_height && isWinningCell(color, x, m_columnHeights[x] + 1)) columns |= 1L << x;
 		}
+		return columns;
+	}
 
-		return Optional.empty();
+	/**
+	 * Returns whether a piece of the given color in the given empty cell would make count to win pieces in a row.
+	 */
+	private boolean isWinningCell(final Color color, final int column, final int row) {
+		return countFrom(color, column, row, 1, 0) + countFrom(color, column, row, -1, 0) + 1 >= m_countToWin
+				|| countFrom(color, column, row, 0, -1) + 1 >= m_countToWin
+				|| countFrom(color, column, row, 1, 1) + countFrom(color, column, row, -1, -1) + 1 >= m_countToWin
+				|| countFrom(color, column, row, 1, -1) + countFrom(color, column, row, -1, 1) + 1 >= m_countToWin;
+	}
+
+	/**
+	 * Returns the number of pieces of the given color in a row from the given cell excluded, in the given direction.
+	 */
+	private int countFrom(final Color color, final int column, final int row, final int dx, final int dy) {
+		int count = 0;
+		int x = column + dx;
+		int y = row + dy;
+		while (x >= 0 && x < m_width && y >= 0 && y < m_height && getCell(x, y) == color) {
+			count++;
+			x += dx;
+			y += dy;
+		}
+		return count;
 	}
 
+	// endregion
+
 	public int getWidth() {
 		return m_width;
 	}
@@ -269,42 +294,47 @@ public class Board {
 		return m_height;
 	}
 
+	public int getCountToWin() {
+		return m_countToWin;
+	}
+
+	public List<Color> getColors() {
+		return m_colors;
+	}
+
 	public String serialize() {
 		final StringBuilder sb = new StringBuilder();
-		for (int y = 0; y < m_height; y++) {
+		for (int y = m_height - 1; y >= 0; y--) {
 			for (int x = 0; x < m_width; x++) {
-				final Color color = m_board[y][x];
+				final Color color = getCell(x, y);
 				sb.append(color == Color.NONE ? "" : color);
-				if (x <= m_width - 1) sb.append(',');
+				sb.append(',');
 			}
 		}
 		return sb.toString();
 	}
 
 	public void unserialize(final String serialized) {
+		final Color[][] cells = new Color[m_height][m_width];
+		for (final Color[] row : cells) {
+			Arrays.fill(row, Color.NONE);
+		}
+
 		int x = 0;
-		int y = 0;
-		Arrays.fill(m_playedCount, 0);
+		int y = m_height - 1;
 		for (final String colorString : serialized.split(",")) {
-			final Color color = colorString.isBlank() ? Color.NONE : Color.valueOf(colorString);
-			m_board[y][x] = color;
+			cells[y][x] = colorString.isBlank() ? Color.NONE : Color.valueOf(colorString);
 			x++;
 			if (x == m_width) {
-				y++;
+				y--;
 				x = 0;
 			}
-			if (color != Color.NONE) {
-				m_playedCount[color.getId()]++;
-			}
 		}
 
+		resetBoard();
 		for (x = 0; x < m_width; x++) {
-			m_columnHeights[x] = 0;
-			for (y = 0; y < m_height; y++) {
-				if (m_board[y][x] != Color.NONE) {
-					m_columnHeights[x] = m_height - y;
-					break;
-				}
+			for (y = 0; y < m_height && cells[y][x] != Color.NONE; y++) {
+				play(cells[y][x], x);
 			}
 		}
 	}
@@ -317,10 +347,10 @@ public class Board {
 			sb.append(x + 1).append(' ');
 		}
 		sb.append('\n');
-		for (int y = 0; y < m_height; y++) {
+		for (int y = m_height - 1; y >= 0; y--) {
 			sb.append('|');
 			for (int x = 0; x < m_width; x++) {
-				sb.append("\u001B[31m").append(m_board[y][x].getCharacter()).append("\u001B[0m").append('|');
+				sb.append("\u001B[31m").append(getCell(x, y).getCharacter()).append("\u001B[0m").append('|');
 			}
 			sb.append('\n');
 		}
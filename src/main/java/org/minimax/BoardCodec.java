@@ -0,0 +1,203 @@
+package org.minimax;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary forms of the positions, much smaller and faster to read than {@link Board#serialize()}.<br>
+ * Two players boards with at most 64 cells once a row is added ({@link #fitsKey(int, int, int)}), such as the 7x6
+ * one, have a 64 bits key : each column uses (height + 1) bits, holding a 1 for each piece of the second player and a
+ * 1 right above its top piece.<br>
+ * Other boards are packed in as many bytes as needed, each column being its height followed by the id of each of its
+ * pieces, both on the fewest bits which hold all their values.<br>
+ * The geometry of the board is never written, so positions must be decoded into boards of the same geometry.
+ */
+public final class BoardCodec {
+	private BoardCodec() {}
+
+	public static boolean fitsKey(final int width, final int height, final int playerCount) {
+		return playerCount == 2 && BitBoard.fits(width, height);
+	}
+
+	/**
+	 * Returns the number of bytes of the encoded position.
+	 */
+	public static int getEncodedSize(final Board board) {
+		if (fitsKey(board.getWidth(), board.getHeight(), board.getColors().size())) return Long.BYTES;
+		final int bits = board.getWidth() * bitCount(board.getHeight()) + board.getPieceCount() * bitCount(board.getColors().size() - 1);
+		return (bits + Byte.SIZE - 1) / Byte.SIZE;
+	}
+
+	// region ===== KEY =====
+
+	public static long toKey(final Board board) {
+		checkKey(board);
+		if (board instanceof BitBoard bitBoard) return bitBoard.getPositionKey();
+
+		final int columnBits = board.getHeight() + 1;
+		final Color second = board.getColors().get(1);
+		long key = 0L;
+		for (int x = 0; x < board.getWidth(); x++) {
+			final int columnHeight = board.getColumnHeight(x);
+			for (int y = 0; y < columnHeight; y++) {
+				if (board.getCell(x, y) == second) key |= 1L << (x * columnBits + y);
+			}
+			key |= 1L << (x * columnBits + columnHeight);
+		}
+		return key;
+	}
+
+	/**
+	 * Replaces the position of the board by the one of the key.
+	 */
+	public static void fromKey(final long key, final Board board) {
+		checkKey(board);
+		final int columnBits = board.getHeight() + 1;
+		final long columnMask = (1L << columnBits) - 1;
+		board.resetBoard();
+		for (int x = 0; x < board.getWidth(); x++) {
+			final long column = (key >>> (x * columnBits)) & columnMask;
+			if (column == 0) throw new IllegalArgumentException("Invalid key " + Long.toHexString(key) + ": column " + x + " has no top bit");
+			final int columnHeight = Long.SIZE - 1 - Long.numberOfLeadingZeros(column);
+			for (int y = 0; y < columnHeight; y++) {
+				board.play(board.getColors().get((int) (column >>> y) & 1), x);
+			}
+		}
+	}
+
+	private static void checkKey(final Board board) {
+		if (!fitsKey(board.getWidth(), board.getHeight(), board.getColors().size())) {
+			throw new IllegalArgumentException("No key for " + board.getColors().size() + " players on a "
+					+ board.getWidth() + 'x' + board.getHeight() + " board");
+		}
+	}
+
+	// endregion
+
+	// region ===== BUFFERS =====
+
+	/**
+	 * Writes the position at the position of the buffer, in {@link #getEncodedSize(Board)} bytes.
+	 */
+	public static void encode(final Board board, final ByteBuffer out) {
+		if (fitsKey(board.getWidth(), board.getHeight(), board.getColors().size())) {
+			out.putLong(toKey(board));
+			return;
+		}
+
+		final int heightBits = bitCount(board.getHeight());
+		final int colorBits = bitCount(board.getColors().size() - 1);
+		final BitWriter writer = new BitWriter(out);
+		for (int x = 0; x < board.getWidth(); x++) {
+			final int columnHeight = board.getColumnHeight(x);
+			writer.write(columnHeight, heightBits);
+			for (int y = 0; y < columnHeight; y++) {
+				writer.write(board.getCell(x, y).getId(), colorBits);
+			}
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Replaces the position of the board by the one read at the position of the buffer.
+	 */
+	public static void decode(final ByteBuffer in, final Board board) {
+		if (fitsKey(board.getWidth(), board.getHeight(), board.getColors().size())) {
+			fromKey(in.getLong(), board);
+			return;
+		}
+
+		final int heightBits = bitCount(board.getHeight());
+		final int colorBits = bitCount(board.getColors().size() - 1);
+		final BitReader reader = new BitReader(in);
+		board.resetBoard();
+		for (int x = 0; x < board.getWidth(); x++) {
+			final int columnHeight = reader.read(heightBits);
+			if (columnHeight > board.getHeight()) throw new IllegalArgumentException("Invalid height for column " + x + ": " + columnHeight);
+			for (int y = 0; y < columnHeight; y++) {
+				final int id = reader.read(colorBits);
+				if (id >= board.getColors().size()) throw new IllegalArgumentException("Invalid player id in column " + x + ": " + id);
+				board.play(board.getColors().get(id), x);
+			}
+		}
+	}
+
+	/**
+	 * Writes the positions one after the other.
+	 */
+	public static void encodeAll(final Iterable<? extends Board> boards, final ByteBuffer out) {
+		for (final Board board : boards) {
+			encode(board, out);
+		}
+	}
+
+	/**
+	 * Reads positions until the end of the buffer, each one in a new board of the given geometry.
+	 */
+	public static List<Board> decodeAll(final ByteBuffer in, final int width, final int height, final int countToWin, final int playerCount) {
+		final List<Board> boards = new ArrayList<>();
+		while (in.hasRemaining()) {
+			final Board board = Board.create(width, height, countToWin, playerCount);
+			decode(in, board);
+			boards.add(board);
+		}
+		return boards;
+	}
+
+	// endregion
+
+	/**
+	 * Returns the number of bits holding all the values up to the given one.
+	 */
+	private static int bitCount(final int maxValue) {
+		return Integer.SIZE - Integer.numberOfLeadingZeros(maxValue);
+	}
+
+	private static final class BitWriter {
+		private final ByteBuffer m_out;
+		private long m_bits;
+		private int m_bitCount;
+
+		BitWriter(final ByteBuffer out) {
+			m_out = out;
+		}
+
+		void write(final int value, final int bitCount) {
+			m_bits |= (long) value << m_bitCount;
+			m_bitCount += bitCount;
+			while (m_bitCount >= Byte.SIZE) {
+				m_out.put((byte) m_bits);
+				m_bits >>>= Byte.SIZE;
+				m_bitCount -= Byte.SIZE;
+			}
+		}
+
+		void flush() {
+			if (m_bitCount > 0) m_out.put((byte) m_bits);
+			m_bits = 0L;
+			m_bitCount = 0;
+		}
+	}
+
+	private static final class BitReader {
+		private final ByteBuffer m_in;
+		private long m_bits;
+		private int m_bitCount;
+
+		BitReader(final ByteBuffer in) {
+			m_in = in;
+		}
+
+		int read(final int bitCount) {
+			while (m_bitCount < bitCount) {
+				m_bits |= (m_in.get() & 0xFFL) << m_bitCount;
+				m_bitCount += Byte.SIZE;
+			}
+			final int value = (int) (m_bits & ((1L << bitCount) - 1));
+			m_bits >>>= bitCount;
+			m_bitCount -= bitCount;
+			return value;
+		}
+	}
+}
@@ -19,5 +19,25 @@ public final class Constants {
 	public static final int DEFAULT_HEIGHT = 6;
 	public static final int DEFAULT_COUNT_TO_WIN = 4;
 
+	public static final int DEFAULT_CACHE_SIZE_MB = 32;
+	/**
+	 * The batch mode has two transposition tables by thread, kept small so that many threads fit in memory.
+	 */
+	public static final int DEFAULT_BATCH_CACHE_SIZE_MB = 4;
+	public static final int AVAILABLE_PROCESSORS = Runtime.getRuntime().availableProcessors();
+
 	public static final String PROFILE_ARG = "--profile";
+	public static final String BUILD_BOOK_ARG = "--build-book";
+	public static final String TOURNAMENT_ARG = "--tournament";
+	public static final String SEED_ARG = "--seed";
+	public static final String LOG_ARG = "--log";
+	public static final String SOLVE_ARG = "--solve";
+	public static final String DEPTH_ARG = "--depth";
+	public static final String TIME_ARG = "--time";
+	public static final String THREADS_ARG = "--threads";
+	public static final String CACHE_ARG = "--cache";
+
+	public static final String OPENING_BOOK_FILE = "opening-book.bin";
+	public static final int DEFAULT_BOOK_MAX_PLY = 4;
+	public static final int DEFAULT_BOOK_SEARCH_DEPTH = 14;
 }
@@ -5,6 +5,7 @@ import org.minimax.player.PlayerType;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
 
 public final class Game {
 	private Game() {}
@@ -13,7 +14,17 @@ public final class Game {
 
 	private static final String TURN_DELIMITER = "========================================";
 
-	public static void play(final int width, final int height, final int countToWin, final boolean shufflePlayers, final PlayerType... playerTypes) {
+	public static GameResult play(final int width, final int height, final int countToWin, final boolean shufflePlayers, final PlayerType... playerTypes) {
+		return play(width, height, countToWin, shufflePlayers, RandomHelper.split().nextLong(), playerTypes);
+	}
+
+	/**
+	 * Plays a game until a player wins or the board is full, printing it only if {@link #s_verbose} is set.
+	 * @param seed seed of all the random choices of the game : the players order, and the choices of each player, which
+	 *             draws from its own stream
+	 */
+	public static GameResult play(final int width, final int height, final int countToWin, final boolean shufflePlayers,
+								  final long seed, final PlayerType... playerTypes) {
 		final int playerCount = playerTypes.length;
 		if (playerCount > Constants.MAX_PLAYER_COUNT) {
 			throw new IllegalArgumentException("Too many players: max is " + Constants.MAX_PLAYER_COUNT + " but got " + playerCount);
@@ -27,57 +38,87 @@ public final class Game {
 			throw new IllegalArgumentException("Invalid count to win: " + countToWin);
 		}
 
-		if (shufflePlayers) shufflePlayers(playerTypes);
+		final GameEvent event = new GameEvent();
+		event.begin();
+		final SplittableRandom random = new SplittableRandom(seed);
+		if (shufflePlayers) shufflePlayers(playerTypes, random);
 
 		final Player[] players = new Player[playerCount];
 		final List<Color> playerColors = Collections.unmodifiableList(Color.COLORS.subList(0, playerCount));
 		for (int i = 0; i < playerCount; i++) {
 			players[i] = playerTypes[i].instantiate(Color.COLORS.get(i), playerColors);
+			players[i].setRandom(random.split());
 			players[i].init();
 		}
 
-		final Board board = new Board(width, height, countToWin, playerCount);
-		print(TURN_DELIMITER);
-		print("Game started on " + board.getWidth() + 'x' + board.getHeight() + " board:");
-		print(board);
+		final Board board = Board.create(width, height, countToWin, playerCount);
+		if (s_verbose) {
+			System.out.println(TURN_DELIMITER);
+			System.out.println("Game started on " + board.getWidth() + 'x' + board.getHeight() + " board:");
+			System.out.println(board);
+		}
 
+		final int[] moves = new int[width * height];
+		final long[] moveNanos = new long[width * height];
+		int ply = 0;
 		int currentlyPlaying = 0;
-		while (true) {
-			print(TURN_DELIMITER);
-			final Player player = players[currentlyPlaying];
-			final Color playerColor = Color.COLORS.get(currentlyPlaying);
-
-			final int column = player.play(board.copy());
-			final boolean result = board.play(playerColor, column);
-			if (!result) throw new IllegalArgumentException("Player " + player + " played invalid move: " + column);
-
-			print("Player " + player + " played in column " + (column + 1) + '.');
-			print(board);
-			print(board.serialize());
-
-			if (board.hasWon(column)) {
-				print("##### Player " + player + " won! #####");
-				break;
+		try {
+			while (true) {
+				if (s_verbose) System.out.println(TURN_DELIMITER);
+				final Player player = players[currentlyPlaying];
+				final Color playerColor = Color.COLORS.get(currentlyPlaying);
+
+				final long start = System.nanoTime();
+				final int column = player.play(board.copy());
+				moveNanos[ply] = System.nanoTime() - start;
+				final boolean result = board.play(playerColor, column);
+				if (!result) throw new IllegalArgumentException("Player " + player + " played invalid move: " + column);
+				moves[ply++] = column;
+
+				if (s_verbose) {
+					System.out.println("Player " + player + " played in column " + (column + 1) + '.');
+					System.out.println(board);
+					System.out.println(board.serialize());
+				}
+
+				if (board.hasWon(column)) {
+					if (s_verbose) System.out.println("##### Player " + player + " won! #####");
+					return end(event, new GameResult(seed, width, height, countToWin, List.of(playerTypes), moves, moveNanos, ply, currentlyPlaying));
+				}
+				if (board.isFull()) {
+					if (s_verbose) System.out.println("##### This game is a draw! #####");
+					return end(event, new GameResult(seed, width, height, countToWin, List.of(playerTypes), moves, moveNanos, ply, GameResult.DRAW));
+				}
+
+				currentlyPlaying = (currentlyPlaying + 1) % playerCount;
 			}
-			if (board.isFull()) {
-				print("##### This game is a draw! #####");
-				break;
+		} finally {
+			for (final Player player : players) {
+				player.onGameOver();
 			}
+		}
+	}
 
-			currentlyPlaying = (currentlyPlaying + 1) % playerCount;
+	private static GameResult end(final GameEvent event, final GameResult result) {
+		if (event.shouldCommit()) {
+			event.seed = result.getSeed();
+			event.width = result.getWidth();
+			event.height = result.getHeight();
+			event.countToWin = result.getCountToWin();
+			event.players = result.getPlayers().toString();
+			event.winner = result.getWinner();
+			event.plies = result.getPlyCount();
+			event.commit();
 		}
+		return result;
 	}
 
-	private static void shufflePlayers(final PlayerType[] players) {
+	private static void shufflePlayers(final PlayerType[] players, final SplittableRandom random) {
 		for (int i = players.length - 1; i >= 0; i--) {
-			final int j = RandomHelper.nextInt(i + 1);
+			final int j = random.nextInt(i + 1);
 			final PlayerType temp = players[j];
 			players[j] = players[i];
 			players[i] = temp;
 		}
 	}
-
-	private static void print(final Object object) {
-		if (s_verbose) System.out.println(object);
-	}
 }
@@ -0,0 +1,40 @@
+package org.minimax;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a game played by {@link Game}, from the creation of its players to its last move.
+ */
+@Name("org.minimax.Game")
+@Label("Game")
+@Category("Connect Four")
+@Description("Game from its start to its end")
+final class GameEvent extends Event {
+
+	@Label("Seed")
+	long seed;
+
+	@Label("Width")
+	int width;
+
+	@Label("Height")
+	int height;
+
+	@Label("Count To Win")
+	int countToWin;
+
+	@Label("Players")
+	@Description("Player types by turn order")
+	String players;
+
+	@Label("Winner")
+	@Description("Turn order of the winner, or -1 for a draw")
+	int winner;
+
+	@Label("Plies")
+	int plies;
+}
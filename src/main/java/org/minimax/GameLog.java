@@ -0,0 +1,63 @@
+package org.minimax;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends {@link GameResult}s to a file, one compact JSON object by line :
+ * <pre>{"seed":1,"width":7,"height":6,"countToWin":4,"players":["RANDOM","RANDOM"],"winner":0,"plies":7,"moves":[3,2,3,2,3,2,3],"moveNanos":[...]}</pre>
+ * The winner is a turn order, -1 for a draw, and the moves are the columns starting from 0.<br>
+ * Lines go through a single reused buffer to a buffered writer, and games played concurrently can share the log.
+ */
+public final class GameLog implements Closeable {
+
+	private final Writer m_writer;
+	private final StringBuilder m_line = new StringBuilder(1024);
+	private char[] m_chars = new char[1024];
+
+	public GameLog(final Path file) throws IOException {
+		m_writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+	}
+
+	public synchronized void write(final GameResult result) throws IOException {
+		final StringBuilder line = m_line;
+		line.setLength(0);
+		line.append("{\"seed\":").append(result.getSeed())
+				.append(",\"width\":").append(result.getWidth())
+				.append(",\"height\":").append(result.getHeight())
+				.append(",\"countToWin\":").append(result.getCountToWin())
+				.append(",\"players\":[");
+		for (int i = 0; i < result.getPlayers().size(); i++) {
+			if (i > 0) line.append(',');
+			line.append('"').append(result.getPlayers().get(i).name()).append('"');
+		}
+		line.append("],\"winner\":").append(result.getWinner())
+				.append(",\"plies\":").append(result.getPlyCount())
+				.append(",\"moves\":[");
+		for (int ply = 0; ply < result.getPlyCount(); ply++) {
+			if (ply > 0) line.append(',');
+			line.append(result.getMove(ply));
+		}
+		line.append("],\"moveNanos\":[");
+		for (int ply = 0; ply < result.getPlyCount(); ply++) {
+			if (ply > 0) line.append(',');
+			line.append(result.getMoveNanos(ply));
+		}
+		line.append("]}\n");
+
+		// Writer.append would copy the line into a new string
+		if (m_chars.length < line.length()) m_chars = new char[Math.max(2 * m_chars.length, line.length())];
+		line.getChars(0, line.length(), m_chars, 0);
+		m_writer.write(m_chars, 0, line.length());
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		m_writer.close();
+	}
+}
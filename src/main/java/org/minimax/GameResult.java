@@ -0,0 +1,90 @@
+package org.minimax;
+
+import org.minimax.player.PlayerType;
+
+import java.util.List;
+
+/**
+ * Outcome of a game played by {@link Game} : its geometry, its players by turn order, its moves with the time each one
+ * took, and its winner.<br>
+ * The player of a ply is the one whose turn order is the ply modulo the player count.
+ */
+public final class GameResult {
+
+	public static final int DRAW = -1;
+
+	private final long m_seed;
+	private final int m_width;
+	private final int m_height;
+	private final int m_countToWin;
+	private final List<PlayerType> m_players;
+	private final int[] m_moves;
+	private final long[] m_moveNanos;
+	private final int m_plyCount;
+	private final int m_winner;
+
+	/**
+	 * @param seed seed of all the random choices of the game
+	 * @param moves column played at each ply, up to the ply count
+	 * @param moveNanos duration of each move, up to the ply count
+	 * @param winner turn order of the winner, or {@link #DRAW}
+	 */
+	public GameResult(final long seed, final int width, final int height, final int countToWin, final List<PlayerType> players,
+					  final int[] moves, final long[] moveNanos, final int plyCount, final int winner) {
+		m_seed = seed;
+		m_width = width;
+		m_height = height;
+		m_countToWin = countToWin;
+		m_players = List.copyOf(players);
+		m_moves = moves;
+		m_moveNanos = moveNanos;
+		m_plyCount = plyCount;
+		m_winner = winner;
+	}
+
+	public long getSeed() {
+		return m_seed;
+	}
+
+	public int getWidth() {
+		return m_width;
+	}
+
+	public int getHeight() {
+		return m_height;
+	}
+
+	public int getCountToWin() {
+		return m_countToWin;
+	}
+
+	/**
+	 * Returns the player types by turn order.
+	 */
+	public List<PlayerType> getPlayers() {
+		return m_players;
+	}
+
+	public int getPlyCount() {
+		return m_plyCount;
+	}
+
+	public int getMove(final int ply) {
+		return m_moves[ply];
+	}
+
+	public long getMoveNanos(final int ply) {
+		return m_moveNanos[ply];
+	}
+
+	/**
+	 * Returns the turn order of the winner, or {@link #DRAW}.
+	 */
+	public int getWinner() {
+		return m_winner;
+	}
+
+	public boolean isDraw() {
+		return m_winner == DRAW;
+	}
+}
@@ -0,0 +1,218 @@
+package org.minimax;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Optional;
+
+/**
+ * Board storing one bitboard of several 64 bits words per player, for the boards too large for a {@link BitBoard}.<br>
+ * Cells are laid out as in a {@link BitBoard}, each column using (height + 1) consecutive bits with an always empty
+ * sentinel bit on top, the bit of index i being bit (i % 64) of word (i / 64).<br>
+ * The whole board is searched for alignments with shifts along the four directions carrying the bits from one word to
+ * the next, in a preallocated buffer, so a board must not be used by several threads at once. The last move and the
+ * threats only need the lines through a single cell, which are walked bit by bit until the sentinels.
+ */
+public class LargeBitBoard extends Board {
+
+	private final int m_columnBits;
+	private final int m_bitCount;
+	private final int m_wordCount;
+	/**
+	 * Bitboards of all the players one after the other, {@link #m_wordCount} words each.
+	 */
+	private final long[] m_pieces;
+	private final long[] m_mask;
+
+	/**
+	 * Runs of pieces, reused by {@link #isAligned(int, int)}.
+	 */
+	private final long[] m_runs;
+
+	public LargeBitBoard(final int width, final int height, final int countToWin, final int playerCount) {
+		super(width, height, countToWin, playerCount);
+		m_columnBits = height + 1;
+		m_bitCount = width * m_columnBits;
+		m_wordCount = (m_bitCount + Long.SIZE - 1) / Long.SIZE;
+		m_pieces = new long[playerCount * m_wordCount];
+		m_mask = new long[m_wordCount];
+		m_runs = new long[m_wordCount];
+	}
+
+	@Override
+	public Board copy() {
+		final LargeBitBoard copy = new LargeBitBoard(m_width, m_height, m_countToWin, m_colors.size());
+		copyStateTo(copy);
+		System.arraycopy(m_pieces, 0, copy.m_pieces, 0, m_pieces.length);
+		System.arraycopy(m_mask, 0, copy.m_mask, 0, m_mask.length);
+		return copy;
+	}
+
+	// region ===== CELLS =====
+
+	private int bitIndex(final int column, final int row) {
+		return column * m_columnBits + row;
+	}
+
+	private static boolean isSet(final long[] bits, final int offset, final int index) {
+		return (bits[offset + (index >>> 6)] & (1L << index)) != 0;
+	}
+
+	@Override
+	protected void placePiece(final Color color, final int column, final int row) {
+		final int index = bitIndex(column, row);
+		m_pieces[color.getId() * m_wordCount + (index >>> 6)] |= 1L << index;
+		m_mask[index >>> 6] |= 1L << index;
+	}
+
+	@Override
+	protected Color removePiece(final int column, final int row) {
+		final int index = bitIndex(column, row);
+		m_mask[index >>> 6] &= ~(1L << index);
+		for (int id = 0; id < m_colors.size(); id++) {
+			final int word = id * m_wordCount + (index >>> 6);
+			if ((m_pieces[word] & (1L << index)) != 0) {
+				m_pieces[word] &= ~(1L << index);
+				return m_colors.get(id);
+			}
+		}
+		throw new IllegalStateException("No piece in column " + column + " at row " + row);
+	}
+
+	@Override
+	protected void clearCells() {
+		Arrays.fill(m_pieces, 0L);
+		Arrays.fill(m_mask, 0L);
+	}
+
+	@Override
+	public Color getCell(final int column, final int row) {
+		final int index = bitIndex(column, row);
+		if (!isSet(m_mask, 0, index)) return Color.NONE;
+		for (int id = 0; id < m_colors.size(); id++) {
+			if (isSet(m_pieces, id * m_wordCount, index)) return m_colors.get(id);
+		}
+		return Color.NONE;
+	}
+
+	// endregion
+
+	@Override
+	public BitSet getBoardBitset() {
+		return BitSet.valueOf(m_pieces);
+	}
+
+	// region ===== ALIGNMENTS =====
+
+	@Override
+	public boolean hasWon(final int column) {
+		if (m_columnHeights[column] == 0) return false;
+
+		final int index = bitIndex(column, m_columnHeights[column] - 1);
+		for (int id = 0; id < m_colors.size(); id++) {
+			final int offset = id * m_wordCount;
+			if (isSet(m_pieces, offset, index)) {
+				return m_playedCount[id] >= m_countToWin && isWinningBit(offset, index);
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Optional<Color> getWinner() {
+		for (int id = 0; id < m_colors.size(); id++) {
+			if (m_playedCount[id] >= m_countToWin && isAligned(id)) return Optional.of(m_colors.get(id));
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Returns whether the given color has at least count to win pieces in a row, in any direction.
+	 */
+	private boolean isAligned(final int colorId) {
+		return isAligned(colorId, 1) // Vertical
+				|| isAligned(colorId, m_columnBits) // Horizontal
+				|| isAligned(colorId, m_columnBits + 1) // Diagonal (bottom left -> top right)
+				|| isAligned(colorId, m_columnBits - 1); // Diagonal (top left -> bottom right)
+	}
+
+	/**
+	 * Each iteration keeps the bits starting a run of {@code length} pieces, and at most doubles that length. The shift
+	 * of each word takes the low bits of the next one, and words are updated from the lowest one, which only reads the
+	 * words above it, so the runs are shifted in place.
+	 */
+	private boolean isAligned(final int colorId, final int shift) {
+		final long[] runs = m_runs;
+		System.arraycopy(m_pieces, colorId * m_wordCount, runs, 0, m_wordCount);
+		int length = 1;
+		while (length < m_countToWin) {
+			final int step = Math.min(length, m_countToWin - length);
+			final int wordShift = (step * shift) >>> 6;
+			final int bitShift = (step * shift) & 63;
+			long any = 0L;
+			for (int i = 0; i < m_wordCount; i++) {
+				final int source = i + wordShift;
+				long shifted = 0L;
+				if (source < m_wordCount) {
+					shifted = runs[source] >>> bitShift;
+					if (bitShift != 0 && source + 1 < m_wordCount) shifted |= runs[source + 1] << (Long.SIZE - bitShift);
+				}
+				runs[i] &= shifted;
+				any |= runs[i];
+			}
+			if (any == 0) return false;
+			length += step;
+		}
+		return true;
+	}
+
+	// endregion
+
+	// region ===== THREATS =====
+
+	@Override
+	public long getWinningColumns(final Color color) {
+		final int offset = color.getId() * m_wordCount;
+		long columns = 0L;
+		for (int x = 0; x < m_width; x++) {
+			if (canPlay(x) && isWinningBit(offset, bitIndex(x, m_columnHeights[x]))) columns |= 1L << x;
+		}
+		return columns;
+	}
+
+	@Override
+	public long getColumnsGivingWin(final Color color) {
+		final int offset = color.getId() * m_wordCount;
+		long columns = 0L;
+		for (int x = 0; x < m_width; x++) {
+			if (m_columnHeights[x] + 1 < m_height && isWinningBit(offset, bitIndex(x, m_columnHeights[x] + 1))) columns |= 1L << x;
+		}
+		return columns;
+	}
+
+	/**
+	 * Returns whether the bit of the given index, set or not, is in a run of count to win bits of the bitboard starting
+	 * at the given offset, in any direction.
+	 */
+	private boolean isWinningBit(final int offset, final int index) {
+		return countFrom(offset, index, -1) + 1 >= m_countToWin // Vertical
+				|| countFrom(offset, index, m_columnBits) + countFrom(offset, index, -m_columnBits) + 1 >= m_countToWin
+				|| countFrom(offset, index, m_columnBits + 1) + countFrom(offset, index, -m_columnBits - 1) + 1 >= m_countToWin
+				|| countFrom(offset, index, m_columnBits - 1) + countFrom(offset, index, -m_columnBits + 1) + 1 >= m_countToWin;
+	}
+
+	/**
+	 * Returns the number of set bits in a row from the given index excluded, in the given direction. Walks stop on the
+	 * sentinel bits, so that they do not need to check the rows.
+	 */
+	private int countFrom(final int offset, int index, final int shift) {
+		int count = 0;
+		index += shift;
+		while (index >= 0 && index < m_bitCount && isSet(m_pieces, offset, index)) {
+			count++;
+			index += shift;
+		}
+		return count;
+	}
+
+	// endregion
+}
@@ -1,21 +1,37 @@
 package org.minimax;
 
+import org.minimax.batch.BatchSolver;
+import org.minimax.book.OpeningBookBuilder;
 import org.minimax.player.PlayerType;
+import org.minimax.tournament.Tournament;
+import org.minimax.tournament.TournamentResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.minimax.Constants.IN;
 
 public class Main {
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException, InterruptedException {
 		if (args.length >= 1 && Constants.PROFILE_ARG.equals(args[0])) {
 			final int count = args.length >= 2 ? Integer.parseInt(args[1]) : 1;
 			RandomHelper.setSeed(3141592653589793238L);
 			final long start = System.nanoTime();
-			for (int i = 0; i < count; i++) {
-				Game.play(
-						Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, Constants.DEFAULT_COUNT_TO_WIN, false,
-						PlayerType.SIMPLE_MINIMAX_12, PlayerType.SIMPLE_MINIMAX_12
-				);
+			// A null log is allowed, and is not closed
+			try (final GameLog log = args.length >= 4 && Constants.LOG_ARG.equals(args[2]) ? new GameLog(Path.of(args[3])) : null) {
+				for (int i = 0; i < count; i++) {
+					final GameResult result = Game.play(
+							Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, Constants.DEFAULT_COUNT_TO_WIN, false,
+							PlayerType.SIMPLE_MINIMAX_12, PlayerType.SIMPLE_MINIMAX_12
+					);
+					if (log != null) log.write(result);
+				}
 			}
 			final long end = System.nanoTime();
 			System.out.println("Total duration: " + (end - start) / Constants.ONE_BILLION + " s");
@@ -23,6 +39,121 @@ public class Main {
 			return;
 		}
 
+		if (args.length >= 1 && Constants.BUILD_BOOK_ARG.equals(args[0])) {
+			final int maxPly = args.length >= 2 ? Integer.parseInt(args[1]) : Constants.DEFAULT_BOOK_MAX_PLY;
+			final int searchDepth = args.length >= 3 ? Integer.parseInt(args[2]) : Constants.DEFAULT_BOOK_SEARCH_DEPTH;
+			final OpeningBookBuilder builder = new OpeningBookBuilder(
+					Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, Constants.DEFAULT_COUNT_TO_WIN, maxPly, searchDepth,
+					Constants.DEFAULT_CACHE_SIZE_MB, Constants.AVAILABLE_PROCESSORS
+			);
+			final long start = System.nanoTime();
+			final int size = builder.build(Path.of(Constants.OPENING_BOOK_FILE));
+			final long end = System.nanoTime();
+			System.out.println("Opening book of " + size + " positions written to " + Constants.OPENING_BOOK_FILE
+					+ " in " + (end - start) / Constants.ONE_BILLION + " s");
+			return;
+		}
+
+		if (args.length >= 1 && Constants.TOURNAMENT_ARG.equals(args[0])) {
+			final String usage = "Usage: " + Constants.TOURNAMENT_ARG + " <round_robin|gauntlet> <games per pairing> <threads> ["
+					+ Constants.SEED_ARG + " <seed>] [" + Constants.LOG_ARG + " <file>] <player type>...";
+			if (args.length < 6) {
+				System.out.println(usage);
+				return;
+			}
+			int firstEntrant = 4;
+			long seed = RandomHelper.split().nextLong();
+			Path logFile = null;
+			while (firstEntrant < args.length && args[firstEntrant].startsWith("--")) {
+				if (firstEntrant + 1 >= args.length) {
+					System.out.println(usage);
+					return;
+				}
+				if (Constants.SEED_ARG.equals(args[firstEntrant])) {
+					seed = Long.parseLong(args[firstEntrant + 1]);
+				} else if (Constants.LOG_ARG.equals(args[firstEntrant])) {
+					logFile = Path.of(args[firstEntrant + 1]);
+				} else {
+					System.out.println("Unknown option: " + args[firstEntrant]);
+					System.out.println(usage);
+					return;
+				}
+				firstEntrant += 2;
+			}
+			// A tournament needs at least two entrants
+			if (args.length - firstEntrant < 2) {
+				System.out.println(usage);
+				return;
+			}
+			final List<PlayerType> entrants = new ArrayList<>();
+			for (int i = firstEntrant; i < args.length; i++) {
+				// Options must come before the player types
+				if (args[i].startsWith("--")) {
+					System.out.println(usage);
+					return;
+				}
+				entrants.add(getPlayerType(args[i]));
+			}
+			final Tournament tournament = new Tournament(
+					entrants, Tournament.Pairing.valueOf(args[1].toUpperCase()), Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+					Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, Constants.DEFAULT_COUNT_TO_WIN, seed
+			);
+			System.out.println("Seed: " + seed);
+			final long start = System.nanoTime();
+			final TournamentResult result;
+			if (logFile == null) {
+				result = tournament.run();
+			} else {
+				try (final GameLog log = new GameLog(logFile)) {
+					tournament.setGameLog(log);
+					result = tournament.run();
+				}
+			}
+			final long end = System.nanoTime();
+			System.out.print(result);
+			System.out.println("Total duration: " + (end - start) / Constants.ONE_BILLION + " s");
+			return;
+		}
+
+		if (args.length >= 1 && Constants.SOLVE_ARG.equals(args[0])) {
+			final String usage = "Usage: " + Constants.SOLVE_ARG + " <input> <output> [" + Constants.DEPTH_ARG + " <depth>] ["
+					+ Constants.TIME_ARG + " <ms>] [" + Constants.THREADS_ARG + " <threads>] [" + Constants.CACHE_ARG + " <MB>]";
+			if (args.length < 3) {
+				System.out.println(usage);
+				return;
+			}
+			int depth = 0;
+			long timeMillis = 0;
+			int threadCount = 1;
+			int cacheSizeInMb = Constants.DEFAULT_BATCH_CACHE_SIZE_MB;
+			for (int i = 3; i < args.length; i += 2) {
+				if (i + 1 >= args.length) {
+					System.out.println(usage);
+					return;
+				}
+				switch (args[i]) {
+					case Constants.DEPTH_ARG -> depth = Integer.parseInt(args[i + 1]);
+					case Constants.TIME_ARG -> timeMillis = Long.parseLong(args[i + 1]);
+					case Constants.THREADS_ARG -> threadCount = Integer.parseInt(args[i + 1]);
+					case Constants.CACHE_ARG -> cacheSizeInMb = Integer.parseInt(args[i + 1]);
+					default -> {
+						System.out.println("Unknown option: " + args[i]);
+						System.out.println(usage);
+						return;
+					}
+				}
+			}
+			final BatchSolver solver = new BatchSolver(
+					Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, Constants.DEFAULT_COUNT_TO_WIN, depth, timeMillis,
+					threadCount, cacheSizeInMb
+			);
+			try (final BufferedReader input = Files.newBufferedReader(Path.of(args[1]));
+				 final Writer output = Files.newBufferedWriter(Path.of(args[2]))) {
+				System.out.println(solver.run(input, output));
+			}
+			return;
+		}
+
 		System.out.print("Game width [" + Constants.DEFAULT_WIDTH + "]: ");
 		final int width = getIntValue(Constants.DEFAULT_WIDTH);
 
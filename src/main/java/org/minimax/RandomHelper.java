@@ -1,18 +1,25 @@
 package org.minimax;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
+/**
+ * Source of the random streams of the games and players which are not given one explicitly.<br>
+ * Each stream is split from a master generator, so that they are independent, drawn from without contention, and all
+ * reproducible from the master seed as long as they are split in the same order.
+ */
 public final class RandomHelper {
 	private RandomHelper() {}
 
-	private static final Random RANDOM = new Random();
+	private static SplittableRandom s_random = new SplittableRandom();
 
-	public static void setSeed(final long seed) {
-		RANDOM.setSeed(seed);
+	public static synchronized void setSeed(final long seed) {
+		s_random = new SplittableRandom(seed);
 	}
 
-	public static int nextInt(final int bound) {
-		return RANDOM.nextInt(bound);
+	/**
+	 * Returns a new stream, independent of the previous ones.
+	 */
+	public static synchronized SplittableRandom split() {
+		return s_random.split();
 	}
-
 }
@@ -0,0 +1,191 @@
+package org.minimax;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counts the pieces of each player in every window of the board, a window being a line of count to win cells in
+ * which a player can still align its pieces.<br>
+ * It is updated by the {@link Board} at each play and cancel, only touching the windows of the changed cell, so
+ * evaluations reading it never scan the board. It keeps for each player :
+ * <ul>
+ *     <li>the number of open windows, holding only pieces of this player, by number of pieces,</li>
+ *     <li>the number of threats, open windows missing one piece, by row parity of the missing cell,</li>
+ *     <li>the center control, the number of windows going through each of its pieces.</li>
+ * </ul>
+ */
+public final class WindowTracker {
+
+	private final int m_height;
+	private final int m_countToWin;
+
+	// Geometry of the windows, never modified so shared by the copies
+	private final int[][] m_cellWindows;
+	private final int[] m_windowCellSums;
+
+	private final int[][] m_windowCounts;
+	private final int[] m_windowOccupiedSums;
+
+	private final int[][] m_openWindows;
+	private final int[][] m_threats;
+	private final int[] m_centerControl;
+
+	WindowTracker(final int width, final int height, final int countToWin, final int playerCount) {
+		m_height = height;
+		m_countToWin = countToWin;
+
+		final List<int[]> windows = new ArrayList<>();
+		// A single cell is the same window in every direction
+		final int[][] directions = countToWin == 1 ? new int[][]{{0, 1}} : new int[][]{{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+		for (final int[] direction : directions) {
+			for (int x = 0; x < width; x++) {
+				for (int y = 0; y < height; y++) {
+					final int endX = x + direction[0] * (countToWin - 1);
+					final int endY = y + direction[1] * (countToWin - 1);
+					if (endX >= width || endY < 0 || endY >= height) continue;
+
+					final int[] cells = new int[countToWin];
+					for (int i = 0; i < countToWin; i++) {
+						cells[i] = (x + direction[0] * i) * height + y + direction[1] * i;
+					}
+					windows.add(cells);
+				}
+			}
+		}
+
+		final int[] windowCountByCell = new int[width * height];
+		m_windowCellSums = new int[windows.size()];
+		for (int w = 0; w < windows.size(); w++) {
+			for (final int cell : windows.get(w)) {
+				windowCountByCell[cell]++;
+				m_windowCellSums[w] += cell;
+			}
+		}
+		m_cellWindows = new int[width * height][];
+		for (int cell = 0; cell < m_cellWindows.length; cell++) {
+			m_cellWindows[cell] = new int[windowCountByCell[cell]];
+		}
+		Arrays.fill(windowCountByCell, 0);
+		for (int w = 0; w < windows.size(); w++) {
+			for (final int cell : windows.get(w)) {
+				m_cellWindows[cell][windowCountByCell[cell]++] = w;
+			}
+		}
+
+		m_windowCounts = new int[playerCount][windows.size()];
+		m_windowOccupiedSums = new int[windows.size()];
+		m_openWindows = new int[playerCount][countToWin + 1];
+		m_threats = new int[playerCount][2];
+		m_centerControl = new int[playerCount];
+	}
+
+	private WindowTracker(final WindowTracker other) {
+		m_height = other.m_height;
+		m_countToWin = other.m_countToWin;
+		m_cellWindows = other.m_cellWindows;
+		m_windowCellSums = other.m_windowCellSums;
+
+		m_windowCounts = deepCopy(other.m_windowCounts);
+		m_windowOccupiedSums = other.m_windowOccupiedSums.clone();
+		m_openWindows = deepCopy(other.m_openWindows);
+		m_threats = deepCopy(other.m_threats);
+		m_centerControl = other.m_centerControl.clone();
+	}
+
+	WindowTracker copy() {
+		return new WindowTracker(this);
+	}
+
+	private static int[][] deepCopy(final int[][] array) {
+		final int[][] copy = new int[array.length][];
+		for (int i = 0; i < array.length; i++) {
+			copy[i] = array[i].clone();
+		}
+		return copy;
+	}
+
+	// region ===== UPDATE =====
+
+	void place(final int playerId, final int cell) {
+		update(playerId, cell, 1);
+	}
+
+	void remove(final int playerId, final int cell) {
+		update(playerId, cell, -1);
+	}
+
+	void clear() {
+		for (final int[] counts : m_windowCounts) {
+			Arrays.fill(counts, 0);
+		}
+		Arrays.fill(m_windowOccupiedSums, 0);
+		for (int id = 0; id < m_openWindows.length; id++) {
+			Arrays.fill(m_openWindows[id], 0);
+			Arrays.fill(m_threats[id], 0);
+		}
+		Arrays.fill(m_centerControl, 0);
+	}
+
+	private void update(final int playerId, final int cell, final int delta) {
+		final int[] windows = m_cellWindows[cell];
+		for (final int w : windows) {
+			count(w, -1);
+			m_windowCounts[playerId][w] += delta;
+			m_windowOccupiedSums[w] += delta * cell;
+			count(w, 1);
+		}
+		m_centerControl[playerId] += delta * windows.length;
+	}
+
+	/**
+	 * Adds (sign = 1) or removes (sign = -1) the window to the totals of the only player having pieces in it, if any.
+	 */
+	private void count(final int window, final int sign) {
+		int owner = -1;
+		for (int id = 0; id < m_windowCounts.length; id++) {
+			if (m_windowCounts[id][window] == 0) continue;
+			if (owner >= 0) return;
+			owner = id;
+		}
+		if (owner < 0) return;
+
+		final int pieces = m_windowCounts[owner][window];
+		m_openWindows[owner][pieces] += sign;
+		if (pieces == m_countToWin - 1) {
+			// Cell indices of a window are distinct, so the missing one is what its occupied cells lack
+			final int missingCell = m_windowCellSums[window] - m_windowOccupiedSums[window];
+			m_threats[owner][(missingCell % m_height) & 1] += sign;
+		}
+	}
+
+	// endregion
+
+	// region ===== GETTERS =====
+
+	/**
+	 * Returns the number of windows holding exactly the given number of pieces, all of them of the given player.
+	 */
+	public int getOpenWindowCount(final Color color, final int pieces) {
+		return m_openWindows[color.getId()][pieces];
+	}
+
+	/**
+	 * Returns the number of open windows of the player missing a single piece, whose missing cell is on a row of the
+	 * given parity, 0 for the even rows (first, third... from the bottom) and 1 for the odd ones.<br>
+	 * A cell completing several windows counts once for each of them.
+	 */
+	public int getThreatCount(final Color color, final int rowParity) {
+		return m_threats[color.getId()][rowParity];
+	}
+
+	/**
+	 * Returns the sum over the pieces of the player of the number of windows going through them, which is highest
+	 * in the center of the board.
+	 */
+	public int getCenterControl(final Color color) {
+		return m_centerControl[color.getId()];
+	}
+
+	// endregion
+}
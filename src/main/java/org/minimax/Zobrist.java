@@ -0,0 +1,26 @@
+package org.minimax;
+
+/**
+ * Zobrist keys of the pieces : the key of a position is the XOR of the keys of all its pieces.<br>
+ * Keys are derived from the piece with a SplitMix64 finalizer instead of being drawn from a table, so they are the
+ * same for every board and every run, and positions saved to disk can be looked up again.
+ */
+public final class Zobrist {
+	private Zobrist() {}
+
+	private static final long SEED = 0x5DEECE66DL;
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * @param cell index of the cell, must be unique on the board
+	 */
+	public static long key(final Color color, final int cell) {
+		return mix(SEED + GOLDEN_GAMMA * ((long) cell * Constants.MAX_PLAYER_COUNT + color.getId() + 1));
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,197 @@
+package org.minimax.batch;
+
+import org.minimax.Board;
+import org.minimax.Color;
+import org.minimax.player.MinimaxPlayer;
+import org.minimax.search.PackedScore;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Searches a stream of two players positions, one by line, and writes the result of each one as a line of JSON :
+ * <pre>{"position":"4453","score":0,"turnsBeforeEnd":-12,"bestMoves":[1,5],"nodes":123456,"nanos":789}</pre>
+ * Positions are either the columns played since the empty board, each one as a digit starting from 1, or the
+ * {@link Board#serialize()} format. Anything after the first blank of a line is ignored, as are the empty lines and
+ * the ones starting with '#'.<br>
+ * The score is the one of the player to move : a heuristic value if the search did not reach the end, or the number
+ * of turns before it wins (positive) or loses (negative), counting its own move. Best moves are columns starting
+ * from 0.<br>
+ * Positions are spread across the threads, each with its own players and transposition tables, and only a few are
+ * read ahead of the one being written, so that the input is never fully loaded and the output keeps its order.
+ */
+public final class BatchSolver {
+
+	/**
+	 * Number of positions read ahead by searching thread.
+	 */
+	private static final int READ_AHEAD_BY_THREAD = 4;
+
+	private static final List<Color> PLAYERS = List.of(Color.COLORS.get(0), Color.COLORS.get(1));
+
+	private final int m_width;
+	private final int m_height;
+	private final int m_countToWin;
+	private final int m_maxDepth;
+	private final long m_timeBudgetMillis;
+	private final int m_threadCount;
+	private final int m_cacheSizeInMb;
+	private final ThreadLocal<SolvingPlayer[]> m_players = ThreadLocal.withInitial(this::createPlayers);
+
+	/**
+	 * @param maxDepth depth of the search, or 0 or less to search until the end of the game
+	 * @param timeBudgetMillis if strictly positive, time after which the search of each position stops deepening
+	 * @param cacheSizeInMb memory allocated to each transposition table, two by thread
+	 */
+	public BatchSolver(final int width, final int height, final int countToWin, final int maxDepth, final long timeBudgetMillis,
+					   final int threadCount, final int cacheSizeInMb) {
+		if (threadCount <= 0) throw new IllegalArgumentException("Invalid thread count: " + threadCount);
+		m_width = width;
+		m_height = height;
+		m_countToWin = countToWin;
+		m_maxDepth = maxDepth;
+		m_timeBudgetMillis = timeBudgetMillis;
+		m_threadCount = threadCount;
+		m_cacheSizeInMb = cacheSizeInMb;
+	}
+
+	public BatchSummary run(final BufferedReader input, final Writer output) throws IOException, InterruptedException {
+		final BatchSummary summary = new BatchSummary();
+		final StringBuilder line = new StringBuilder(256);
+		final Deque<Future<Solution>> pending = new ArrayDeque<>();
+		final ExecutorService executor = Executors.newFixedThreadPool(m_threadCount);
+		final long start = System.nanoTime();
+		try {
+			String inputLine;
+			int lineNumber = 0;
+			while ((inputLine = input.readLine()) != null) {
+				lineNumber++;
+				final String position = inputLine.strip().split("\\s", 2)[0];
+				if (position.isEmpty() || position.startsWith("#")) continue;
+
+				final int number = lineNumber;
+				pending.add(executor.submit(() -> solve(position, number)));
+				if (pending.size() >= READ_AHEAD_BY_THREAD * m_threadCount) write(pending.poll().get(), line, output, summary);
+			}
+			while (!pending.isEmpty()) {
+				write(pending.poll().get(), line, output, summary);
+			}
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException("Position search failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+		output.flush();
+		summary.setWallNanos(System.nanoTime() - start);
+		return summary;
+	}
+
+	private SolvingPlayer[] createPlayers() {
+		final SolvingPlayer[] players = new SolvingPlayer[PLAYERS.size()];
+		for (int i = 0; i < players.length; i++) {
+			players[i] = new SolvingPlayer(PLAYERS.get(i), m_cacheSizeInMb, m_timeBudgetMillis);
+			// Entries of a full search are exact whatever the root, so they can be reused by the next positions. Depth
+			// limited searches start from an empty table, so that their results do not depend on the order of the
+			// positions or on the number of threads. Searches limited only by time depend on the clock anyway.
+			players[i].setCachePersistent(m_maxDepth <= 0);
+		}
+		return players;
+	}
+
+	private Solution solve(final String position, final int lineNumber) {
+		final Board board = Board.create(m_width, m_height, m_countToWin, PLAYERS.size());
+		if (position.indexOf(',') >= 0) {
+			board.unserialize(position);
+		} else {
+			for (int i = 0; i < position.length(); i++) {
+				final int column = position.charAt(i) - '1';
+				if (column < 0 || column >= m_width || !board.play(PLAYERS.get(i % PLAYERS.size()), column) || board.hasWon(column)) {
+					throw new IllegalArgumentException("Invalid move " + position.charAt(i) + " on line " + lineNumber + ": " + position);
+				}
+			}
+		}
+		if (board.isFull() || board.getWinner().isPresent()) {
+			throw new IllegalArgumentException("Finished game on line " + lineNumber + ": " + position);
+		}
+
+		final SolvingPlayer player = m_players.get()[board.getPieceCount() % PLAYERS.size()];
+		final int emptyCells = m_width * m_height - board.getPieceCount();
+		player.m_maxDepth = m_maxDepth <= 0 ? emptyCells : Math.min(m_maxDepth, emptyCells);
+		final long start = System.nanoTime();
+		final long bestMoves = player.getBestMoves(board);
+		final long nanos = System.nanoTime() - start;
+		return new Solution(position, player.getLastScore(), bestMoves, player.getLastNodeCount(), nanos);
+	}
+
+	private static void write(final Solution solution, final StringBuilder line, final Writer output,
+							  final BatchSummary summary) throws IOException {
+		line.setLength(0);
+		line.append("{\"position\":\"").append(solution.position())
+				.append("\",\"score\":").append(PackedScore.value(solution.score()))
+				.append(",\"turnsBeforeEnd\":").append(PackedScore.turnsBeforeEnd(solution.score()))
+				.append(",\"bestMoves\":[");
+		long columns = solution.bestMoves();
+		while (columns != 0) {
+			line.append(Long.numberOfTrailingZeros(columns));
+			columns &= columns - 1;
+			if (columns != 0) line.append(',');
+		}
+		line.append("],\"nodes\":").append(solution.nodes())
+				.append(",\"nanos\":").append(solution.nanos())
+				.append("}\n");
+		output.append(line);
+		summary.add(solution.nodes(), solution.nanos());
+	}
+
+	/**
+	 * @param score packed score of the best moves, for the player to move
+	 * @param bestMoves mask of the best columns
+	 */
+	private record Solution(String position, int score, long bestMoves, long nodes, long nanos) {
+	}
+
+	/**
+	 * Minimax player whose depth is set for each position, and whose positions are only valued by their end.
+	 */
+	private static final class SolvingPlayer extends MinimaxPlayer {
+		private final long m_timeBudgetMillis;
+		private int m_maxDepth;
+
+		private SolvingPlayer(final Color color, final int cacheSizeInMb, final long timeBudgetMillis) {
+			super(color, PLAYERS, cacheSizeInMb);
+			m_timeBudgetMillis = timeBudgetMillis;
+		}
+
+		@Override
+		public void init() {
+		}
+
+		@Override
+		protected int getMaxDepth() {
+			return m_maxDepth;
+		}
+
+		@Override
+		protected long getTimeBudgetMillis() {
+			return m_timeBudgetMillis;
+		}
+
+		@Override
+		protected int computeHeuristic(final Board board) {
+			return 0;
+		}
+
+		@Override
+		protected String name() {
+			return "Solver";
+		}
+	}
+}
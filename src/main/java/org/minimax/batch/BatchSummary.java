@@ -0,0 +1,53 @@
+package org.minimax.batch;
+
+import org.minimax.Constants;
+
+/**
+ * Throughput of a {@link BatchSolver} run.
+ */
+public final class BatchSummary {
+
+	private int m_positionCount;
+	private long m_nodeCount;
+	private long m_searchNanos;
+	private long m_wallNanos;
+
+	void add(final long nodeCount, final long searchNanos) {
+		m_positionCount++;
+		m_nodeCount += nodeCount;
+		m_searchNanos += searchNanos;
+	}
+
+	void setWallNanos(final long wallNanos) {
+		m_wallNanos = wallNanos;
+	}
+
+	public int getPositionCount() {
+		return m_positionCount;
+	}
+
+	public long getNodeCount() {
+		return m_nodeCount;
+	}
+
+	/**
+	 * Returns the number of positions searched by second of the whole run, all threads together.
+	 */
+	public double getPositionsPerSecond() {
+		return m_wallNanos == 0 ? 0.0d : m_positionCount * Constants.ONE_BILLION / m_wallNanos;
+	}
+
+	/**
+	 * Returns the mean number of nodes searched by second by a single search, which does not depend on the thread
+	 * count.
+	 */
+	public double getNodesPerSecond() {
+		return m_searchNanos == 0 ? 0.0d : m_nodeCount * Constants.ONE_BILLION / m_searchNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d positions in %.3f s: %.1f positions/s, %d nodes, %.0f nodes/s by search",
+				m_positionCount, m_wallNanos / Constants.ONE_BILLION, getPositionsPerSecond(), m_nodeCount, getNodesPerSecond());
+	}
+}
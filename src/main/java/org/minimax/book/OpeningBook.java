@@ -0,0 +1,135 @@
+package org.minimax.book;
+
+import org.minimax.Board;
+import org.minimax.Constants;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only opening book, memory-mapped from a file written by {@link OpeningBookBuilder}.<br>
+ * Lookups are binary searches reading the mapped file in place, so they copy nothing, and several processes using the
+ * same book share its pages through the page cache. A book can be used by several threads at once.<br>
+ * The file is a header followed by the entries sorted by key :
+ * <pre>
+ * | magic (4) | version (4) | width (4) | height (4) | count to win (4) | max ply (4) | entry count (8) |
+ * | key (8) | best columns mask (8) | ...
+ * </pre>
+ * where the key is the {@link Board#getCanonicalKey() canonical key} of a two players position, and the mask is given for
+ * the position with that key, so a position and its mirror image share their entry.
+ */
+public final class OpeningBook {
+
+	public static final long MISS = 0L;
+
+	static final int MAGIC = 0x43344F42; // "C4OB"
+	static final int VERSION = 2;
+	static final int HEADER_SIZE = 6 * Integer.BYTES + Long.BYTES;
+	static final int ENTRY_SIZE = 2 * Long.BYTES;
+
+	private static OpeningBook s_default;
+
+	private final ByteBuffer m_entries;
+	private final int m_width;
+	private final int m_height;
+	private final int m_countToWin;
+	private final int m_maxPly;
+	private final int m_entryCount;
+
+	private OpeningBook(final ByteBuffer file) {
+		if (file.capacity() < HEADER_SIZE || file.getInt(0) != MAGIC) {
+			throw new IllegalArgumentException("Not an opening book file");
+		}
+		if (file.getInt(4) != VERSION) throw new IllegalArgumentException("Unsupported opening book version: " + file.getInt(4));
+
+		m_width = file.getInt(8);
+		m_height = file.getInt(12);
+		m_countToWin = file.getInt(16);
+		m_maxPly = file.getInt(20);
+		final long entryCount = file.getLong(24);
+		if (entryCount < 0 || HEADER_SIZE + entryCount * ENTRY_SIZE != file.capacity()) {
+			throw new IllegalArgumentException("Truncated opening book: " + entryCount + " entries announced");
+		}
+		m_entryCount = (int) entryCount;
+		m_entries = file.slice(HEADER_SIZE, m_entryCount * ENTRY_SIZE);
+	}
+
+	/**
+	 * Maps the given book file in memory.
+	 */
+	public static OpeningBook open(final Path path) throws IOException {
+		try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Returns the book stored in {@link Constants#OPENING_BOOK_FILE}, opened on the first call and then shared.
+	 */
+	public static synchronized OpeningBook getDefault() {
+		if (s_default == null) {
+			final Path path = Path.of(Constants.OPENING_BOOK_FILE);
+			if (!Files.exists(path)) {
+				throw new IllegalStateException("No opening book found at " + path.toAbsolutePath() + ", build it with "
+						+ Constants.BUILD_BOOK_ARG);
+			}
+			try {
+				s_default = open(path);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return s_default;
+	}
+
+	/**
+	 * Returns whether positions of this board can be in the book.
+	 */
+	public boolean covers(final Board board) {
+		return board.getWidth() == m_width && board.getHeight() == m_height && board.getCountToWin() == m_countToWin
+				&& board.getColors().size() == 2 && board.getPieceCount() <= m_maxPly;
+	}
+
+	/**
+	 * Returns the best columns of the position as a mask, or {@link #MISS} if it is not in the book.
+	 */
+	public long getBestMoves(final Board board) {
+		if (!covers(board)) return MISS;
+
+		final long key = board.getCanonicalKey();
+		int low = 0;
+		int high = m_entryCount - 1;
+		while (low <= high) {
+			final int middle = (low + high) >>> 1;
+			final long middleKey = m_entries.getLong(middle * ENTRY_SIZE);
+			if (middleKey < key) {
+				low = middle + 1;
+			} else if (middleKey > key) {
+				high = middle - 1;
+			} else {
+				final long bestMoves = m_entries.getLong(middle * ENTRY_SIZE + Long.BYTES);
+				return board.isCanonicalMirrored() ? board.mirrorColumns(bestMoves) : bestMoves;
+			}
+		}
+		return MISS;
+	}
+
+	public int getMaxPly() {
+		return m_maxPly;
+	}
+
+	public int size() {
+		return m_entryCount;
+	}
+
+	@Override
+	public String toString() {
+		return "OpeningBook[" + m_width + 'x' + m_height + ", count to win " + m_countToWin + ", " + m_entryCount
+				+ " positions up to ply " + m_maxPly + ']';
+	}
+}
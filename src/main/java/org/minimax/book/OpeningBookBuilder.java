@@ -0,0 +1,102 @@
+package org.minimax.book;
+
+import org.minimax.Board;
+import org.minimax.Color;
+import org.minimax.player.MinimaxPlayer;
+import org.minimax.player.SimpleMinimaxPlayer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds an {@link OpeningBook} offline, by searching every two players position reachable up to a given ply.
+ */
+public final class OpeningBookBuilder {
+
+	private final int m_width;
+	private final int m_height;
+	private final int m_countToWin;
+	private final int m_maxPly;
+	private final MinimaxPlayer[] m_players;
+
+	/**
+	 * Entries by canonical key, which dedupes the transpositions and mirror images, and sorts the entries as the book
+	 * needs.
+	 */
+	private final Map<Long, Long> m_entries = new TreeMap<>();
+
+	/**
+	 * @param searchDepth depth of the minimax search run on each position
+	 * @param threadCount number of threads of each search
+	 */
+	public OpeningBookBuilder(final int width, final int height, final int countToWin, final int maxPly,
+							  final int searchDepth, final int cacheSizeInMb, final int threadCount) {
+		if (maxPly < 0) throw new IllegalArgumentException("Invalid max ply: " + maxPly);
+		m_width = width;
+		m_height = height;
+		m_countToWin = countToWin;
+		m_maxPly = Math.min(maxPly, width * height - 1);
+
+		final List<Color> colors = Color.COLORS.subList(0, 2);
+		m_players = new MinimaxPlayer[colors.size()];
+		for (int i = 0; i < colors.size(); i++) {
+			m_players[i] = new SimpleMinimaxPlayer(colors.get(i), colors, searchDepth, cacheSizeInMb, threadCount);
+		}
+	}
+
+	/**
+	 * Searches all the positions and writes the book to the given file.
+	 * @return number of positions in the book
+	 */
+	public int build(final Path output) throws IOException {
+		m_entries.clear();
+		try {
+			visit(Board.create(m_width, m_height, m_countToWin, m_players.length));
+		} finally {
+			for (final MinimaxPlayer player : m_players) {
+				player.onGameOver();
+			}
+		}
+		write(output);
+		return m_entries.size();
+	}
+
+	private void visit(final Board board) {
+		final long key = board.getCanonicalKey();
+		if (m_entries.containsKey(key)) return;
+
+		final int turn = board.getPieceCount() % m_players.length;
+		final long bestMoves = m_players[turn].getBestMoves(board.copy());
+		m_entries.put(key, board.isCanonicalMirrored() ? board.mirrorColumns(bestMoves) : bestMoves);
+		if (board.getPieceCount() == m_maxPly) return;
+
+		final Color color = board.getColors().get(turn);
+		for (int x = 0; x < m_width; x++) {
+			if (!board.play(color, x)) continue;
+			if (!board.hasWon(x)) visit(board);
+			board.cancel(x);
+		}
+	}
+
+	private void write(final Path output) throws IOException {
+		try (final DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+			stream.writeInt(OpeningBook.MAGIC);
+			stream.writeInt(OpeningBook.VERSION);
+			stream.writeInt(m_width);
+			stream.writeInt(m_height);
+			stream.writeInt(m_countToWin);
+			stream.writeInt(m_maxPly);
+			stream.writeLong(m_entries.size());
+			for (final Map.Entry<Long, Long> entry : m_entries.entrySet()) {
+				stream.writeLong(entry.getKey());
+				stream.writeLong(entry.getValue());
+			}
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package org.minimax.player;
+
+import org.minimax.Board;
+import org.minimax.Color;
+import org.minimax.Constants;
+import org.minimax.search.MoveOrdering;
+import org.minimax.search.TranspositionTable;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Max<sup>n</sup> search for any number of players : each node is valued by a vector holding one value by player, and
+ * the player to move picks the child with the highest value for itself.<br>
+ * Values are positive and each vector sums to at most {@link #MAX_SUM}, which allows shallow pruning : once the player
+ * to move has found a child worth {@code v} to it, the node is worth at most {@code MAX_SUM - v} to the previous
+ * player, who stops searching it if that is no better than one of its other moves.<br>
+ * Vectors are written in preallocated buffers, one by depth, and moves come from the {@link MoveOrdering}, so that
+ * searching a node allocates nothing. The transposition table only gives the best move of already searched positions,
+ * as a vector does not fit in an entry.
+ */
+public abstract class MaxnPlayer extends Player {
+
+	public static final int MAX_SUM = 1 << 20;
+
+	/**
+	 * Sum of the values of the heuristics, low enough that a win is worth more to its player than any heuristic.
+	 */
+	private static final int HEURISTIC_SUM = MAX_SUM - (1 << 12);
+
+	private final int m_cacheSizeInMb;
+	/**
+	 * Created by the first search, as its size depends on the depth of the searches.
+	 */
+	private TranspositionTable m_cache;
+	private final MoveOrdering m_ordering = new MoveOrdering(EnumSet.allOf(MoveOrdering.Heuristic.class));
+	private final int[] m_rawValues;
+	private int[][] m_values = new int[0][];
+	private int m_depthLimit;
+
+	protected MaxnPlayer(final Color color, final List<Color> players) {
+		this(color, players, Constants.DEFAULT_CACHE_SIZE_MB);
+	}
+
+	/**
+	 * @param cacheSizeInMb max memory allocated to the transposition table, which is smaller if the searches of the
+	 * player cannot fill it
+	 */
+	protected MaxnPlayer(final Color color, final List<Color> players, final int cacheSizeInMb) {
+		super(color, players);
+		if (cacheSizeInMb <= 0) throw new IllegalArgumentException("Invalid transposition table size: " + cacheSizeInMb + " MB");
+		m_cacheSizeInMb = cacheSizeInMb;
+		m_rawValues = new int[players.size()];
+	}
+
+	protected abstract int getMaxDepth();
+
+	/**
+	 * Writes the value of the position for each player, by turn order. Values must be positive, and are then scaled
+	 * so that they sum to less than any win. They must not change when the board is mirrored.
+	 */
+	protected abstract void computeHeuristics(final Board board, final int[] values);
+
+	public MoveOrdering getMoveOrdering() {
+		return m_ordering;
+	}
+
+	@Override
+	public int play(final Board board) {
+		final List<Integer> playableColumns = board.getPlayableColumns();
+		if (playableColumns.size() == 1) return playableColumns.get(0);
+		return pickRandomColumn(getBestMoves(board));
+	}
+
+	/**
+	 * Returns the mask of the columns with the highest value for this player.
+	 */
+	public long getBestMoves(final Board board) {
+		if (board.getWidth() > Long.SIZE) {
+			throw new IllegalArgumentException("Max^n player can only play on boards up to " + Long.SIZE + " columns");
+		}
+
+		final int emptyCells = board.getWidth() * board.getHeight() - board.getPieceCount();
+		final int sizeInMb = TranspositionTable.getSizeInMb(board.getWidth(), Math.min(getMaxDepth(), emptyCells), m_cacheSizeInMb);
+		if (m_cache == null || m_cache.getSizeInBytes() < ((long) sizeInMb << 20)) {
+			m_cache = new TranspositionTable(sizeInMb);
+		} else {
+			m_cache.reset();
+		}
+		m_ordering.newSearch(board);
+		if (m_values.length < emptyCells + 1) m_values = new int[emptyCells + 1][getPlayerCount()];
+		m_depthLimit = getMaxDepth();
+
+		final int count = m_ordering.order(board, 0, getColor(), TranspositionTable.NO_MOVE);
+		final int[] columns = new int[count];
+		for (int i = 0; i < count; i++) {
+			columns[i] = m_ordering.getMove(0, i);
+		}
+
+		int bestValue = -1;
+		long bestColumns = 0L;
+		for (final int column : columns) {
+			board.play(getColor(), column);
+			// Searched just below the best value, so that columns worth as much are not pruned
+			maxn(board, column, 1, bestValue - 1);
+			board.cancel(column);
+
+			final int value = m_values[1][getTurnOrder()];
+			if (value > bestValue) {
+				bestValue = value;
+				bestColumns = 0L;
+			}
+			if (value == bestValue) bestColumns |= 1L << column;
+		}
+		return bestColumns;
+	}
+
+	/**
+	 * Writes the value of the node in the buffer of its depth.
+	 * @param previousBest value of the best move found so far by the player who played the last move
+	 */
+	private void maxn(final Board board, final int lastPlayedColumn, final int depth, final int previousBest) {
+		final int[] values = m_values[depth];
+		final int previousPlayer = (getTurnOrder() + depth - 1) % getPlayerCount();
+		if (board.hasWon(lastPlayedColumn)) {
+			Arrays.fill(values, 0);
+			values[previousPlayer] = MAX_SUM - Math.min(depth, MAX_SUM - HEURISTIC_SUM - 1);
+			return;
+		}
+		if (depth >= m_depthLimit) {
+			computeScaledHeuristics(board, values);
+			return;
+		}
+		if (board.isFull()) {
+			Arrays.fill(values, HEURISTIC_SUM / getPlayerCount());
+			return;
+		}
+
+		final int player = (previousPlayer + 1) % getPlayerCount();
+		final Color color = getPlayers().get(player);
+		final long key = board.getCanonicalKey();
+		final boolean mirrored = board.isCanonicalMirrored();
+		final long entry = m_cache.probe(key);
+		int cachedColumn = entry == TranspositionTable.MISS ? TranspositionTable.NO_MOVE : TranspositionTable.bestMove(entry);
+		if (mirrored && cachedColumn != TranspositionTable.NO_MOVE) cachedColumn = board.mirrorColumn(cachedColumn);
+
+		final int count = m_ordering.order(board, depth, color, cachedColumn);
+		final int[] childValues = m_values[depth + 1];
+		int bestValue = -1;
+		int bestColumn = TranspositionTable.NO_MOVE;
+		for (int i = 0; i < count; i++) {
+			final int column = m_ordering.getMove(depth, i);
+			board.play(color, column);
+			maxn(board, column, depth + 1, bestValue);
+			board.cancel(column);
+
+			if (childValues[player] > bestValue) {
+				bestValue = childValues[player];
+				bestColumn = column;
+				System.arraycopy(childValues, 0, values, 0, values.length);
+			}
+
+			// Shallow pruning : the previous player gets at most what this one leaves, no more than its best move
+			if (bestValue >= MAX_SUM - previousBest) {
+				m_ordering.onCutoff(depth, color, i, m_depthLimit - depth);
+				break;
+			}
+		}
+
+		// Only the best move is used, so the score and depth of the entry are never read
+		m_cache.store(key, 0, 0, TranspositionTable.EXACT, mirrored ? board.mirrorColumn(bestColumn) : bestColumn);
+	}
+
+	private void computeScaledHeuristics(final Board board, final int[] values) {
+		computeHeuristics(board, m_rawValues);
+		long total = 0;
+		for (final int value : m_rawValues) {
+			total += value;
+		}
+		for (int i = 0; i < values.length; i++) {
+			values[i] = total == 0 ? HEURISTIC_SUM / values.length : (int) (m_rawValues[i] * (long) HEURISTIC_SUM / total);
+		}
+	}
+}
@@ -2,165 +2,862 @@ package org.minimax.player;
 
 import org.minimax.Board;
 import org.minimax.Color;
-import org.minimax.RandomHelper;
+import org.minimax.Constants;
+import org.minimax.book.OpeningBook;
+import org.minimax.search.MoveOrdering;
+import org.minimax.search.PackedScore;
+import org.minimax.search.SearchStatistics;
+import org.minimax.search.TranspositionTable;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
+/**
+ * Minimax with alpha-beta pruning, or principal variation search, which keeps the best line of each search.<br>
+ * With more than two players, it is a Paranoid search : all the other players are assumed to play together against
+ * this one, which keeps the search two-sided so that it prunes as much as with two players.<br>
+ * Scores are {@link PackedScore packed integers} and moves are generated in the preallocated buffers of the
+ * {@link MoveOrdering}, so that searching a node allocates nothing.
+ */
 public abstract class MinimaxPlayer extends Player {
 
-	private final Map<BitSet, Result> m_cache = new HashMap<>();
+	/**
+	 * Number of nodes between two checks of the deadline, minus one. Leaves are counted but never check it, so checks
+	 * are a bit sparser.
+	 */
+	private static final int DEADLINE_CHECK_MASK = 1023;
+
+	private final int m_cacheSizeInMb;
+	/**
+	 * Created by the first search, as its size depends on the depth of the searches.
+	 */
+	private TranspositionTable m_cache;
+
+	private OpeningBook m_openingBook;
+	private boolean m_cachePersistent;
+	private boolean m_principalVariationSearch;
+	private boolean m_pondering;
+	private Search m_search;
+	private Search[] m_helpers = new Search[0];
+	private ForkJoinPool m_pool;
+	private Search m_ponderSearch;
+	private Thread m_ponderThread;
+	/**
+	 * Results of the positions pondered to the depth of a move, by key, only written by the pondering thread.
+	 */
+	private final Map<Long, Result> m_ponderResults = new HashMap<>();
+	private int m_lastScore = PackedScore.DRAW;
+	private long m_lastNodeCount;
+	private int m_lastDepth;
+	private long m_lastCacheEvictions;
+	private boolean m_statisticsEnabled;
+	private SearchStatistics m_lastStatistics;
+	private int[] m_lastPrincipalVariation = new int[0];
 
 	protected MinimaxPlayer(final Color color, final List<Color> players) {
+		this(color, players, Constants.DEFAULT_CACHE_SIZE_MB);
+	}
+
+	/**
+	 * @param cacheSizeInMb max memory allocated to the transposition table, which is smaller if the searches of the
+	 * player cannot fill it
+	 */
+	protected MinimaxPlayer(final Color color, final List<Color> players, final int cacheSizeInMb) {
 		super(color, players);
-		if (players.size() != 2) throw new IllegalArgumentException("Minimax player can only play versus one other player");
+		if (cacheSizeInMb <= 0) throw new IllegalArgumentException("Invalid transposition table size: " + cacheSizeInMb + " MB");
+		m_cacheSizeInMb = cacheSizeInMb;
 	}
 
 	protected abstract int getMaxDepth();
 
+	/**
+	 * Must give the same value to a position and its mirror image, which share their cache entries.<br>
+	 * Must be thread-safe if {@link #getThreadCount()} is greater than one.
+	 * @return value of the position for this player, clamped between -{@link PackedScore#MAX_HEURISTIC} and
+	 * {@link PackedScore#MAX_HEURISTIC} excluded
+	 */
 	protected abstract int computeHeuristic(final Board board);
 
+	/**
+	 * If strictly positive, the player searches with iterative deepening up to {@link #getMaxDepth()} until this time
+	 * has elapsed, and plays the best move of the last completed depth. Otherwise, it searches directly to the max depth.
+	 */
+	protected long getTimeBudgetMillis() {
+		return 0;
+	}
+
+	/**
+	 * Heuristics used to order the moves of each node, all of them by default.
+	 */
+	protected Set<MoveOrdering.Heuristic> getMoveOrderingHeuristics() {
+		return EnumSet.allOf(MoveOrdering.Heuristic.class);
+	}
+
+	/**
+	 * Number of threads searching each move, the calling one included. Above one, the columns of the root are split
+	 * between them, which gives the same best moves as a single thread. There can be more threads than columns : the
+	 * threads left without a column of their own search the same columns as the others over the shared transposition
+	 * table, and the first one to finish a column scores it.
+	 */
+	protected int getThreadCount() {
+		return 1;
+	}
+
+	/**
+	 * Returns the move ordering of this player, whose statistics cover all its moves and all its threads until they
+	 * are reset.
+	 */
+	public MoveOrdering getMoveOrdering() {
+		return getSearch().m_ordering;
+	}
+
+	/**
+	 * Makes the player look its moves up in the given book before searching them, or always search them if null.
+	 */
+	public void setOpeningBook(final OpeningBook openingBook) {
+		m_openingBook = openingBook;
+	}
+
+	/**
+	 * If true, the transposition table is kept from one move to the next for the whole game, its entries from the
+	 * previous moves being replaced first. Otherwise, it is cleared before each move, which makes the chosen moves
+	 * only depend on the position.
+	 */
+	public void setCachePersistent(final boolean cachePersistent) {
+		m_cachePersistent = cachePersistent;
+	}
+
+	/**
+	 * If true, only the first move of each node is searched with the full window, the others being searched with a null
+	 * window which only proves they are not better, and searched again with the full window when they are. This gives
+	 * the same best moves and score, and cuts far more as long as the first move is usually the best.
+	 */
+	public void setPrincipalVariationSearch(final boolean principalVariationSearch) {
+		m_principalVariationSearch = principalVariationSearch;
+	}
+
+	/**
+	 * If true, after each move the player keeps searching on a background thread, as long as the next player thinks,
+	 * the positions it can reach with each reply of that player, the expected one first. Its next move reuses the
+	 * result of the position if it was searched to the same depth, and otherwise the transposition table it filled,
+	 * which pondering makes persistent. Only two players games are pondered.
+	 */
+	public void setPondering(final boolean pondering) {
+		m_pondering = pondering;
+		if (pondering) setCachePersistent(true);
+	}
+
+	/**
+	 * Returns the packed score of the best moves of the last call to {@link #getBestMoves(Board)}, for this player.<br>
+	 * Moves from the opening book have no score, and leave it at {@link PackedScore#DRAW}.
+	 */
+	public int getLastScore() {
+		return m_lastScore;
+	}
+
+	/**
+	 * Returns the number of nodes searched by the last call to {@link #getBestMoves(Board)}, by all its threads, or 0 if
+	 * its result came from pondering.
+	 */
+	public long getLastNodeCount() {
+		return m_lastNodeCount;
+	}
+
+	/**
+	 * Returns the depth of the last completed search of the last call to {@link #getBestMoves(Board)}, or 0 if its
+	 * moves came from the opening book.
+	 */
+	public int getLastDepth() {
+		return m_lastDepth;
+	}
+
+	/**
+	 * Returns the expected line of the last call to {@link #getBestMoves(Board)} : the columns played by each player in
+	 * turn, starting with one of the best moves. It stops early where the score of a position came from the
+	 * transposition table, and is empty if the moves came from the opening book.
+	 */
+	public int[] getLastPrincipalVariation() {
+		return m_lastPrincipalVariation.clone();
+	}
+
+	/**
+	 * Makes the following searches collect {@link SearchStatistics}, which costs a few increments by node. When
+	 * disabled, the search only checks that they are off.
+	 */
+	public void setStatisticsEnabled(final boolean statisticsEnabled) {
+		m_statisticsEnabled = statisticsEnabled;
+	}
+
+	/**
+	 * Returns the statistics of the last call to {@link #getBestMoves(Board)}, by all its threads, or null if they were
+	 * disabled or the moves came from the opening book.
+	 */
+	public SearchStatistics getLastStatistics() {
+		return m_lastStatistics;
+	}
+
+	private Search getSearch() {
+		if (m_search == null) m_search = new Search();
+		return m_search;
+	}
+
 	@Override
 	public int play(final Board board) {
+		final MoveSearchEvent event = new MoveSearchEvent();
+		event.begin();
 		final List<Integer> playableColumns = board.getPlayableColumns();
-		if (playableColumns.size() == 1) return playableColumns.get(0);
+		final boolean searched = playableColumns.size() > 1;
+		final int column = searched ? pickRandomColumn(getBestMoves(board)) : playableColumns.get(0);
 
-		final List<Integer> bestMoves = getBestMoves(board);
-		return bestMoves.get(RandomHelper.nextInt(bestMoves.size()));
+		if (event.shouldCommit()) {
+			event.player = name();
+			event.ply = board.getPieceCount();
+			event.position = board.getCanonicalKey();
+			event.column = column;
+			if (m_cache != null) {
+				event.cacheCapacity = m_cache.getCapacity();
+				event.cacheSizeInBytes = m_cache.getSizeInBytes();
+			}
+			if (searched) {
+				event.depth = m_lastDepth;
+				event.nodes = m_lastNodeCount;
+				event.score = m_lastScore;
+				event.fromBook = m_lastDepth == 0;
+				event.cacheEvictions = m_lastCacheEvictions;
+			}
+			event.commit();
+		}
+		if (m_pondering) startPondering(board, column);
+		return column;
+	}
+
+	/**
+	 * Also shuts down the threads of the parallel search, which are created again if the player is reused.
+	 */
+	@Override
+	public void onGameOver() {
+		stopPondering();
+		if (m_pool != null) {
+			m_pool.shutdown();
+			m_pool = null;
+		}
 	}
 
-	private List<Integer> getBestMoves(final Board board) {
-		m_cache.clear();
-		return minimax(board, null, 0, true, Score.WORST, Score.BEST).bestColumns;
+	/**
+	 * Returns the best moves as a mask of columns, so that the random pick does not depend on the search order.
+	 */
+	public long getBestMoves(final Board board) {
+		if (board.getWidth() > Long.SIZE) {
+			throw new IllegalArgumentException("Minimax player can only play on boards up to " + Long.SIZE + " columns");
+		}
+
+		stopPondering();
+		final Result pondered = m_ponderResults.get(board.getKey());
+		if (pondered != null && getTimeBudgetMillis() <= 0 && pondered.depth == getDirectDepth(board)) {
+			m_lastScore = pondered.score;
+			m_lastNodeCount = 0;
+			m_lastDepth = pondered.depth;
+			m_lastCacheEvictions = 0;
+			m_lastStatistics = null;
+			m_lastPrincipalVariation = pondered.principalVariation;
+			return pondered.bestColumns;
+		}
+
+		if (m_openingBook != null) {
+			final long bookMoves = m_openingBook.getBestMoves(board);
+			if (bookMoves != OpeningBook.MISS) {
+				m_lastScore = PackedScore.DRAW;
+				m_lastNodeCount = 0;
+				m_lastDepth = 0;
+				m_lastCacheEvictions = 0;
+				m_lastStatistics = null;
+				m_lastPrincipalVariation = new int[0];
+				return bookMoves;
+			}
+		}
+		return getBestMoves(board, -1L, PackedScore.WORST, PackedScore.BEST);
 	}
 
-	private Result minimax(final Board board, final Integer lastPlayedColumn,
-						   final int depth, final boolean maximizing,
-						   Score alpha, Score beta) {
-		final BitSet boardBitset = board.getBoardBitset();
-		final Result cachedResult = m_cache.get(boardBitset);
-		if (cachedResult != null) {
-			return cachedResult;
+	/**
+	 * Searches the given columns of the position, without looking them up in the opening book, and returns the ones
+	 * whose score reaches the best one, within the given window : every score of at least beta counts as beta, and if
+	 * no column scores more than alpha, the scores are upper bounds and the returned columns mean nothing.
+	 * @param columns mask of the columns to search, among the playable ones
+	 */
+	long getBestMoves(final Board board, final long columns, final int alpha, final int beta) {
+		stopPondering();
+		prepareCache(board);
+		final Search search = getSearch();
+		search.newSearch(board);
+
+		final int count = search.m_ordering.order(board, 0, getColor(), TranspositionTable.NO_MOVE);
+		int playableCount = 0;
+		final int[] orderedColumns = new int[count];
+		for (int i = 0; i < count; i++) {
+			final int column = search.m_ordering.getMove(0, i);
+			if ((columns & (1L << column)) != 0) orderedColumns[playableCount++] = column;
 		}
+		final int[] playableColumns = Arrays.copyOf(orderedColumns, playableCount);
+
+		search.m_rootAlpha = alpha;
+		search.m_rootBeta = beta;
+		final Result result = getTimeBudgetMillis() <= 0
+				? searchRoot(search, board, playableColumns, getDirectDepth(board), Long.MAX_VALUE, getThreadCount())
+				: searchIteratively(search, board, playableColumns, System.nanoTime() + getTimeBudgetMillis() * 1_000_000L, getThreadCount());
+		m_lastScore = result.score;
+		m_lastNodeCount = search.m_nodeCount;
+		m_lastDepth = Math.min(result.depth, board.getWidth() * board.getHeight() - board.getPieceCount());
+		m_lastCacheEvictions = search.m_cacheEvictions;
+		m_lastStatistics = search.m_statistics;
+		m_lastPrincipalVariation = result.principalVariation;
+		return result.bestColumns;
+	}
 
-		final Result iterationResult;
-		if (lastPlayedColumn != null && board.hasWon(lastPlayedColumn)) {
-			iterationResult = new Result(maximizing ? Score.WORST : Score.BEST, List.of());
-		} else if (depth >= getMaxDepth()) {
-			iterationResult = new Result(new Score(computeHeuristic(board), 0), List.of());
+	/**
+	 * Creates the transposition table, or a larger one if the search of the given position can fill more, and starts
+	 * a new generation of it, which is the only one found if the cache is not persistent.
+	 */
+	private void prepareCache(final Board board) {
+		final int depth = getTimeBudgetMillis() <= 0 ? getDirectDepth(board) : getMaxDepth();
+		final int sizeInMb = TranspositionTable.getSizeInMb(board.getWidth(), depth, m_cacheSizeInMb);
+		if (m_cache == null || m_cache.getSizeInBytes() < ((long) sizeInMb << 20)) {
+			m_cache = new TranspositionTable(sizeInMb);
+		} else if (m_cachePersistent) {
+			m_cache.newGeneration();
 		} else {
-			final Color color = getColor(maximizing);
-			final List<Integer> playableColumns = board.getPlayableColumns();
-			Score value;
-			final List<Integer> bestColumns = new ArrayList<>(board.getWidth());
-			if (maximizing) {
-				value = Score.WORST;
-				for (final int column : playableColumns) {
-					board.play(color, column);
-					final Result result = minimax(board, column, depth + 1, false, alpha, beta);
-
-					if (result.score.greaterThan(value)){
-						value = result.score;
-						bestColumns.clear();
-						bestColumns.add(column);
-					} else if (result.score.equals(value)) {
-						bestColumns.add(column);
-					}
+			m_cache.reset();
+		}
+	}
 
-					if (value.greaterThanOrEqualsTo(beta)) {
-						board.cancel(column);
-						break;
-					}
+	/**
+	 * Returns the size of the transposition table, or 0 before the first search.
+	 */
+	long getCacheSizeInBytes() {
+		return m_cache == null ? 0 : m_cache.getSizeInBytes();
+	}
 
-					alpha = Score.max(alpha, value);
+	/**
+	 * Returns the depth of a search without time budget, which searching deeper than the end would only slow down by
+	 * giving every cache entry the same depth, defeating its replacement.
+	 */
+	private int getDirectDepth(final Board board) {
+		return Math.min(getMaxDepth(), board.getWidth() * board.getHeight() - board.getPieceCount());
+	}
 
-					board.cancel(column);
-				}
-			} else {
-				value = Score.BEST;
-				for (final int column : playableColumns) {
-					board.play(color, column);
-					final Result result = minimax(board, column, depth + 1, true, alpha, beta);
-
-					if (value.greaterThan(result.score)) {
-						value = result.score;
-						bestColumns.clear();
-						bestColumns.add(column);
-					} else if (result.score.equals(value)) {
-						bestColumns.add(column);
-					}
+	/**
+	 * Returns the result of the last depth completed before the deadline, or null if it was cancelled first.
+	 */
+	private Result searchIteratively(final Search search, final Board board, final int[] playableColumns,
+									 final long deadline, final int threadCount) {
+		final int emptyCells = board.getWidth() * board.getHeight() - board.getPieceCount();
+		final int[] order = playableColumns.clone();
+		Result result = null;
+		for (int depth = 1; depth <= getMaxDepth(); depth++) {
+			// The first depth always completes, so there is always a move to play
+			final Result iterationResult = searchRoot(search, board, order, depth, depth == 1 ? Long.MAX_VALUE : deadline, threadCount);
+			if (iterationResult == null) break;
 
-					if (alpha.greaterThan(value)) {
-						board.cancel(column);
-						break;
-					}
+			result = iterationResult;
+			if (depth >= emptyCells || PackedScore.turnsBeforeEnd(result.score) > 0 || System.nanoTime() >= deadline) break;
 
-					beta = Score.min(beta, value);
+			// Best moves of this depth are searched first at the next one, which gives the tightest window early
+			int i = 0;
+			for (final int column : playableColumns) {
+				if ((result.bestColumns & (1L << column)) != 0) order[i++] = column;
+			}
+			for (final int column : playableColumns) {
+				if ((result.bestColumns & (1L << column)) == 0) order[i++] = column;
+			}
+		}
+		return result;
+	}
 
-					board.cancel(column);
+	/**
+	 * Returns the scores of the given columns, or null if the deadline was reached or the search cancelled before the
+	 * end.
+	 */
+	private Result searchRoot(final Search search, final Board board, final int[] columns, final int depthLimit,
+							  final long deadline, final int threadCount) {
+		final long start = System.nanoTime();
+		search.startIteration(depthLimit, deadline);
+		final int[] scores = new int[columns.length];
+		final int[][] lines = new int[columns.length][];
+		if (threadCount <= 1) {
+			int value = PackedScore.WORST;
+			for (int i = 0; i < columns.length; i++) {
+				scores[i] = search.searchRootColumn(board, columns[i], value);
+				if (search.m_aborted) return null;
+				lines[i] = search.getRootLine(columns[i]);
+				value = Math.max(value, scores[i]);
+			}
+			if (search.m_statistics != null) search.m_statistics.onDepthCompleted(depthLimit, System.nanoTime() - start);
+			return Result.of(columns, scores, lines, depthLimit);
+		}
+
+		final RootSplit split = new RootSplit(columns, scores, lines);
+		final Search[] helpers = getHelpers(threadCount - 1);
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>(helpers.length);
+		for (int k = 0; k < helpers.length; k++) {
+			final Search helper = helpers[k];
+			final int threadIndex = k + 1;
+			helper.newSearch(board);
+			helper.startIteration(depthLimit, deadline);
+			helper.m_rootAlpha = search.m_rootAlpha;
+			helper.m_rootBeta = search.m_rootBeta;
+			final Board helperBoard = board.copy();
+			tasks.add(m_pool.submit(() -> split.search(helper, helperBoard, threadIndex)));
+		}
+		split.search(search, board, 0);
+
+		boolean aborted = search.m_aborted;
+		for (int k = 0; k < tasks.size(); k++) {
+			tasks.get(k).join();
+			aborted |= helpers[k].m_aborted;
+			search.m_nodeCount += helpers[k].m_nodeCount;
+			search.m_cacheEvictions += helpers[k].m_cacheEvictions;
+			if (search.m_statistics != null) search.m_statistics.merge(helpers[k].m_statistics);
+			search.m_ordering.mergeStatistics(helpers[k].m_ordering);
+			helpers[k].m_ordering.resetStatistics();
+		}
+		search.m_scoredColumns = null;
+		if (aborted) return null;
+		if (search.m_statistics != null) search.m_statistics.onDepthCompleted(depthLimit, System.nanoTime() - start);
+		return Result.of(columns, scores, lines, depthLimit);
+	}
+
+	private Search[] getHelpers(final int helperCount) {
+		if (m_pool == null || m_pool.getParallelism() != helperCount) {
+			if (m_pool != null) m_pool.shutdown();
+			m_pool = new ForkJoinPool(helperCount);
+		}
+		if (m_helpers.length != helperCount) {
+			m_helpers = new Search[helperCount];
+			for (int k = 0; k < helperCount; k++) {
+				m_helpers[k] = new Search();
+			}
+		}
+		return m_helpers;
+	}
+
+	/**
+	 * Columns of the root shared by the threads of one iteration.<br>
+	 * Every thread starts with the first column, the most likely to be the best, which gives a narrow window to the
+	 * others. Then each thread takes the next column nobody searched yet, and once there are none left, searches a
+	 * column another thread is still searching. The first thread to finish a column scores it, and the others stop and
+	 * move on. As all of them share the transposition table, a thread searching the same column as another one mostly
+	 * finds its entries and may finish first, so every thread is useful whatever the number of columns.
+	 */
+	private static final class RootSplit {
+		private final int[] m_columns;
+		private final int[] m_scores;
+		private final int[][] m_lines;
+		/**
+		 * Non zero for each column claimed by the first thread which finished it.
+		 */
+		private final AtomicIntegerArray m_scoredColumns;
+		private final AtomicInteger m_nextColumn = new AtomicInteger(1);
+		private final AtomicInteger m_bestValue = new AtomicInteger(PackedScore.WORST);
+
+		private RootSplit(final int[] columns, final int[] scores, final int[][] lines) {
+			m_columns = columns;
+			m_scores = scores;
+			m_lines = lines;
+			m_scoredColumns = new AtomicIntegerArray(columns.length);
+		}
+
+		private void search(final Search search, final Board board, final int threadIndex) {
+			search.m_scoredColumns = m_scoredColumns;
+			int i = 0;
+			while (i >= 0) {
+				search.m_columnIndex = i;
+				final int score = search.searchRootColumn(board, m_columns[i], m_bestValue.get());
+				if (search.m_aborted) {
+					if (!search.isOvertaken()) return;
+					search.m_aborted = false;
+				} else {
+					// Raised before the column is claimed, so that the threads it stops get the narrower window
+					m_bestValue.accumulateAndGet(score, Math::max);
+					if (m_scoredColumns.compareAndSet(i, 0, 1)) {
+						m_scores[i] = score;
+						m_lines[i] = search.getRootLine(m_columns[i]);
+					}
 				}
+				i = nextColumn(threadIndex);
 			}
-			iterationResult = new Result(value.increaseTurnsBeforeEnd(), bestColumns);
 		}
 
-		m_cache.put(boardBitset, iterationResult);
-		return iterationResult;
+		/**
+		 * Returns the next column nobody searched yet, else a column still searched by another thread, starting from a
+		 * different one for each thread so that they spread, or -1 if all of them are scored.
+		 */
+		private int nextColumn(final int threadIndex) {
+			final int next = m_nextColumn.getAndIncrement();
+			if (next < m_columns.length) return next;
+			for (int j = 0; j < m_columns.length; j++) {
+				final int i = (threadIndex + j) % m_columns.length;
+				if (m_scoredColumns.get(i) == 0) return i;
+			}
+			return -1;
+		}
 	}
 
-	private Color getColor(final boolean maximizing) {
-		if (maximizing) return getColor();
-		return getPlayers().get(1 - getTurnOrder());
+	// region ===== PONDERING =====
+
+	/**
+	 * Starts searching the replies to the given move in the background, until the next call to
+	 * {@link #getBestMoves(Board)}.
+	 * @param board position before the move
+	 */
+	private void startPondering(final Board board, final int column) {
+		stopPondering();
+		m_ponderResults.clear();
+		if (getPlayerCount() != 2) return;
+
+		final Board ponderBoard = board.copy();
+		ponderBoard.play(getColor(), column);
+		if (ponderBoard.hasWon(column) || ponderBoard.isFull()) return;
+
+		// The expected reply is the second move of the line, if the line starts with the chosen move
+		final int[] line = m_lastPrincipalVariation;
+		final int expectedReply = line.length > 1 && line[0] == column ? line[1] : TranspositionTable.NO_MOVE;
+		if (m_ponderSearch == null) m_ponderSearch = new Search();
+		m_ponderSearch.m_cancelled = false;
+		m_ponderThread = new Thread(() -> ponder(ponderBoard, expectedReply), "Ponder-" + this);
+		m_ponderThread.setDaemon(true);
+		m_ponderThread.start();
 	}
 
-	private record Result(Score score, List<Integer> bestColumns) {}
+	/**
+	 * Cancels the background search, if any, and waits for it to stop.
+	 */
+	private void stopPondering() {
+		if (m_ponderThread == null) return;
+
+		m_ponderSearch.m_cancelled = true;
+		try {
+			m_ponderThread.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		m_ponderThread = null;
+	}
 
 	/**
-	 * Represent a score will a different comparison as a normal integer :<br>
-	 * (_, -1) < (_, -2) < (_, -3) < ... < (-x, 0) < (0, 0) < (x, 0) < ... < (_, 3) < (_, 2) < (_, 1)
-	 * @param value	if turnsBeforeEnd == 0, heuristic of the position
-	 * @param turnsBeforeEnd if 0 means there is no end ;
-	 *                       if positive, means this player will win in X turns ;
-	 *                       if negative, means the opponent will win in X turns
+	 * Waits for the background search, if any, to go through all the replies, without cancelling it.
 	 */
-	record Score(int value, int turnsBeforeEnd) {
-		private static final Score WORST = new Score(0, -1);
-		private static final Score BEST = new Score(0, 1);
-		
-		boolean greaterThan(final Score other) {
-			if (turnsBeforeEnd == 0 && other.turnsBeforeEnd == 0) {
-				return value > other.value;
-			} else if (turnsBeforeEnd == 0) { // && other.turnsBeforeEnd != 0
-				return other.turnsBeforeEnd <= 0;
-			} else if (other.turnsBeforeEnd == 0) { // && turnsBeforeEnd != 0
-				return turnsBeforeEnd >= 0;
+	void awaitPondering() throws InterruptedException {
+		if (m_ponderThread != null) m_ponderThread.join();
+	}
+
+	private void ponder(final Board board, final int expectedReply) {
+		final Search search = m_ponderSearch;
+		final Color opponent = getPlayers().get((getTurnOrder() + 1) % getPlayerCount());
+		final int[] replies = orderColumns(search, board, opponent, expectedReply);
+		for (final int reply : replies) {
+			board.play(opponent, reply);
+			final boolean searchable = !board.hasWon(reply) && !board.isFull()
+					&& (m_openingBook == null || m_openingBook.getBestMoves(board) == OpeningBook.MISS);
+			if (searchable) {
+				final int[] columns = orderColumns(search, board, getColor(), TranspositionTable.NO_MOVE);
+				search.m_rootAlpha = PackedScore.WORST;
+				search.m_rootBeta = PackedScore.BEST;
+				final Result result = searchIteratively(search, board, columns, Long.MAX_VALUE, 1);
+				if (search.m_cancelled) return;
+				if (result.depth == getDirectDepth(board)) m_ponderResults.put(board.getKey(), result);
+			}
+			board.cancel(reply);
+		}
+	}
+
+	/**
+	 * Returns the playable columns of the position, in the order the search would try them.
+	 */
+	private int[] orderColumns(final Search search, final Board board, final Color color, final int expectedColumn) {
+		search.newSearch(board);
+		search.m_statistics = null;
+		final int count = search.m_ordering.order(board, 0, color, expectedColumn);
+		final int[] columns = new int[count];
+		for (int i = 0; i < count; i++) {
+			columns[i] = search.m_ordering.getMove(0, i);
+		}
+		return columns;
+	}
+
+	// endregion
+
+	/**
+	 * State of one searching thread, the transposition table being shared by all of them.
+	 */
+	private final class Search {
+		private final MoveOrdering m_ordering = new MoveOrdering(getMoveOrderingHeuristics());
+
+		private int m_depthLimit;
+		private long m_deadline;
+		private long m_nodeCount;
+		private long m_cacheEvictions;
+		private boolean m_aborted;
+		/**
+		 * Set by another thread to stop the search as soon as possible, as if its deadline was reached.
+		 */
+		private volatile boolean m_cancelled;
+		private int m_rootAlpha = PackedScore.WORST;
+		private int m_rootBeta = PackedScore.BEST;
+		/**
+		 * Columns of the root already scored when the columns are split between threads, null otherwise.
+		 */
+		private AtomicIntegerArray m_scoredColumns;
+		/**
+		 * Index of the root column searched, whose search stops once another thread scored it.
+		 */
+		private int m_columnIndex;
+		private SearchStatistics m_statistics;
+		/**
+		 * Triangular table of the principal variation : the line of the node at each ply, starting with its best move,
+		 * is its best move followed by the line of the following ply.
+		 */
+		private int[][] m_lines = new int[0][];
+		private int[] m_lineLengths = new int[0];
+
+		private void newSearch(final Board board) {
+			m_ordering.newSearch(board);
+			m_nodeCount = 0;
+			m_cacheEvictions = 0;
+			final int maxPly = board.getWidth() * board.getHeight() - board.getPieceCount();
+			m_statistics = m_statisticsEnabled ? new SearchStatistics(maxPly) : null;
+			if (m_lines.length < maxPly + 1) {
+				m_lines = new int[maxPly + 1][maxPly + 1];
+				m_lineLengths = new int[maxPly + 1];
+			}
+		}
+
+		private void startIteration(final int depthLimit, final long deadline) {
+			m_depthLimit = depthLimit;
+			m_deadline = deadline;
+			m_aborted = false;
+			m_scoredColumns = null;
+		}
+
+		private boolean isOvertaken() {
+			return m_scoredColumns != null && m_scoredColumns.get(m_columnIndex) != 0;
+		}
+
+		/**
+		 * Searches just below the best value found so far, which makes every score reaching it exact, so ties are
+		 * real ties whatever the order in which the columns are searched.
+		 */
+		private int searchRootColumn(final Board board, final int column, final int bestValue) {
+			final int alpha = bestValue == PackedScore.WORST ? m_rootAlpha : Math.max(m_rootAlpha, bestValue - 1);
+			board.play(getColor(), column);
+			int score;
+			if (m_principalVariationSearch && alpha == bestValue - 1 && bestValue < m_rootBeta) {
+				// Columns below the best value only need an upper bound, the others are searched again to be exact
+				score = minimax(board, column, 1, alpha, bestValue);
+				if (score >= bestValue && !m_aborted) score = minimax(board, column, 1, alpha, m_rootBeta);
 			} else {
-				if (turnsBeforeEnd < 0 && other.turnsBeforeEnd < 0) {
-					return turnsBeforeEnd < other.turnsBeforeEnd;
-				} else if (turnsBeforeEnd < 0) { // && other.turnsBeforeEnd > 0
-					return false;
-				} else if (other.turnsBeforeEnd < 0) { // && turnsBeforeEnd > 0
-					return true;
-				} else {
-					return turnsBeforeEnd < other.turnsBeforeEnd;
-				}
+				score = minimax(board, column, 1, alpha, m_rootBeta);
 			}
+			board.cancel(column);
+			return Math.min(score, m_rootBeta);
 		}
 
-		boolean greaterThanOrEqualsTo(final Score other) {
-			return greaterThan(other) || equals(other);
+		/**
+		 * Returns the line of the last searched root column, which is only complete if its score is exact.
+		 */
+		private int[] getRootLine(final int column) {
+			final int[] line = new int[1 + m_lineLengths[1]];
+			line[0] = column;
+			System.arraycopy(m_lines[1], 0, line, 1, m_lineLengths[1]);
+			return line;
 		}
 
-		private Score increaseTurnsBeforeEnd() {
-			if (turnsBeforeEnd == 0) return this;
-			if (turnsBeforeEnd > 0) return new Score(value, turnsBeforeEnd + 1);
-			return new Score(value, turnsBeforeEnd - 1);
+		private void updateLine(final int depth, final int column) {
+			final int length = m_lineLengths[depth + 1];
+			m_lines[depth][0] = column;
+			System.arraycopy(m_lines[depth + 1], 0, m_lines[depth], 1, length);
+			m_lineLengths[depth] = length + 1;
 		}
 
-		private static Score max(final Score a, final Score b) {
-			return a.greaterThan(b) ? a : b;
+		/**
+		 * Searches the child reached by the given column, already played. In principal variation search, every child
+		 * but the first one is first searched with a null window, and only searched again with the node window if it
+		 * turns out to be better than the best one so far without causing a cutoff.
+		 */
+		private int searchChild(final Board board, final int column, final int depth, final int alpha, final int beta,
+								final boolean first, final boolean maximizing) {
+			if (first || !m_principalVariationSearch || beta - alpha <= 1) return minimax(board, column, depth + 1, alpha, beta);
+
+			final int score = maximizing
+					? minimax(board, column, depth + 1, alpha, alpha + 1)
+					: minimax(board, column, depth + 1, beta - 1, beta);
+			if (score <= alpha || score >= beta || m_aborted) return score;
+			return minimax(board, column, depth + 1, alpha, beta);
 		}
 
-		private static Score min(final Score a, final Score b) {
-			return a.greaterThan(b) ? b : a;
+		/**
+		 * Alpha and beta bound the returned score. As it is the value of the node with one more turn before the end,
+		 * the window of the node itself, and of its children, has one turn less.
+		 */
+		private int minimax(final Board board, final int lastPlayedColumn, final int depth,
+							final int returnedAlpha, final int returnedBeta) {
+			m_nodeCount++;
+			m_lineLengths[depth] = 0;
+			final SearchStatistics statistics = m_statistics;
+			if (statistics != null) statistics.onNode(depth);
+			if (board.hasWon(lastPlayedColumn)) return getColorAt(depth - 1) == getColor() ? PackedScore.BEST : PackedScore.WORST;
+			if (depth >= m_depthLimit) return PackedScore.heuristic(computeHeuristic(board));
+			if (board.isFull()) return PackedScore.DRAW;
+
+			if ((m_nodeCount & DEADLINE_CHECK_MASK) == 0 && (System.nanoTime() >= m_deadline || m_cancelled || isOvertaken())) {
+				m_aborted = true;
+			}
+			if (m_aborted) return PackedScore.DRAW;
+
+			final Color color = getColorAt(depth);
+			final boolean maximizing = color == getColor();
+			// Scores given without searching are the ones the search would find, which needs its children not to be leaves
+			final long wins = board.getWinningColumns(color);
+			if (wins != 0) {
+				m_lineLengths[depth + 1] = 0;
+				updateLine(depth, Long.numberOfTrailingZeros(wins));
+				return PackedScore.increaseTurnsBeforeEnd(maximizing ? PackedScore.BEST : PackedScore.WORST);
+			}
+			long columns = -1L;
+			final Color next = getColorAt(depth + 1);
+			final int lossInTwo = PackedScore.increaseTurnsBeforeEnd(next == getColor() ? PackedScore.BEST : PackedScore.WORST);
+			// With more than two players, a player does not have to stop the next one from winning if it is on its side
+			if (depth + 2 <= m_depthLimit && (maximizing || next == getColor())) {
+				final long threats = board.getWinningColumns(next);
+				if (Long.bitCount(threats) > 1) return PackedScore.increaseTurnsBeforeEnd(lossInTwo);
+				// A single threat must be blocked, and nothing may be played below a threat, both losing at once otherwise
+				columns = threats != 0 ? threats : ~board.getColumnsGivingWin(next);
+			}
+
+			final int alphaOrigin = PackedScore.decreaseTurnsBeforeEnd(returnedAlpha);
+			final int betaOrigin = PackedScore.decreaseTurnsBeforeEnd(returnedBeta);
+
+			// Mirror images share their entries, whose columns are stored as seen from the canonical one
+			final long key = board.getCanonicalKey();
+			final boolean mirrored = board.isCanonicalMirrored();
+			final int remainingDepth = m_depthLimit - depth;
+			final long entry = m_cache.probe(key);
+			// Best move of a previous search of this position, even if too shallow, is likely to cut again
+			int cachedColumn = entry == TranspositionTable.MISS ? TranspositionTable.NO_MOVE : TranspositionTable.bestMove(entry);
+			if (mirrored && cachedColumn != TranspositionTable.NO_MOVE) cachedColumn = board.mirrorColumn(cachedColumn);
+			if (statistics != null) statistics.onCacheProbe(entry != TranspositionTable.MISS);
+			if (entry != TranspositionTable.MISS && TranspositionTable.depth(entry) >= remainingDepth) {
+				final int score = TranspositionTable.score(entry);
+				final int bound = TranspositionTable.bound(entry);
+				if (bound == TranspositionTable.EXACT
+						|| bound == TranspositionTable.LOWER && score >= betaOrigin
+						|| bound == TranspositionTable.UPPER && score <= alphaOrigin) {
+					if (statistics != null) statistics.onCacheCutoff();
+					return PackedScore.increaseTurnsBeforeEnd(score);
+				}
+			}
+
+			int alpha = alphaOrigin;
+			int beta = betaOrigin;
+			final int count = m_ordering.order(board, depth, color, cachedColumn, columns);
+			if (count == 0) return PackedScore.increaseTurnsBeforeEnd(lossInTwo);
+			int value;
+			int bestColumn = TranspositionTable.NO_MOVE;
+			if (maximizing) {
+				value = PackedScore.WORST;
+				for (int i = 0; i < count; i++) {
+					final int column = m_ordering.getMove(depth, i);
+					board.play(color, column);
+					final int score = searchChild(board, column, depth, alpha, beta, i == 0, true);
+					board.cancel(column);
+					if (m_aborted) return value;
+
+					if (score > value || bestColumn == TranspositionTable.NO_MOVE) {
+						value = score;
+						bestColumn = column;
+					}
+
+					if (value >= beta) {
+						m_ordering.onCutoff(depth, color, i, remainingDepth);
+						if (statistics != null) statistics.onCutoff(depth, i);
+						break;
+					}
+
+					if (value > alpha) {
+						alpha = value;
+						updateLine(depth, column);
+					}
+				}
+			} else {
+				value = PackedScore.BEST;
+				for (int i = 0; i < count; i++) {
+					final int column = m_ordering.getMove(depth, i);
+					board.play(color, column);
+					final int score = searchChild(board, column, depth, alpha, beta, i == 0, false);
+					board.cancel(column);
+					if (m_aborted) return value;
+
+					if (score < value || bestColumn == TranspositionTable.NO_MOVE) {
+						value = score;
+						bestColumn = column;
+					}
+
+					if (value <= alpha) {
+						m_ordering.onCutoff(depth, color, i, remainingDepth);
+						if (statistics != null) statistics.onCutoff(depth, i);
+						break;
+					}
+
+					if (value < beta) {
+						beta = value;
+						updateLine(depth, column);
+					}
+				}
+			}
+
+			final int bound;
+			if (value <= alphaOrigin) {
+				bound = TranspositionTable.UPPER;
+			} else if (value >= betaOrigin) {
+				bound = TranspositionTable.LOWER;
+			} else {
+				bound = TranspositionTable.EXACT;
+			}
+			if (m_cache.store(key, value, remainingDepth, bound, mirrored ? board.mirrorColumn(bestColumn) : bestColumn)) {
+				m_cacheEvictions++;
+			}
+			return PackedScore.increaseTurnsBeforeEnd(value);
+		}
+	}
+
+	/**
+	 * @param score packed score of the best columns
+	 * @param bestColumns mask of the columns with that score
+	 * @param depth depth of the search
+	 * @param principalVariation line of the first best column in search order
+	 */
+	private record Result(int score, long bestColumns, int depth, int[] principalVariation) {
+		private static Result of(final int[] columns, final int[] scores, final int[][] lines, final int depth) {
+			int value = PackedScore.WORST;
+			long bestColumns = 0L;
+			int[] principalVariation = null;
+			for (int i = 0; i < columns.length; i++) {
+				if (scores[i] > value) {
+					value = scores[i];
+					bestColumns = 0L;
+					principalVariation = lines[i];
+				}
+				if (scores[i] == value) bestColumns |= 1L << columns[i];
+			}
+			return new Result(value, bestColumns, depth, principalVariation);
 		}
 	}
+
+	/**
+	 * Returns the color playing at the given depth, the root being at depth 0.
+	 */
+	private Color getColorAt(final int depth) {
+		return getPlayers().get((getTurnOrder() + depth) % getPlayerCount());
+	}
 }
@@ -0,0 +1,59 @@
+package org.minimax.player;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a move chosen by a {@link MinimaxPlayer}, whose duration is the one of the whole move.
+ */
+@Name("org.minimax.MoveSearch")
+@Label("Move Search")
+@Category({"Connect Four", "Search"})
+@Description("Search of a move by a minimax player")
+final class MoveSearchEvent extends Event {
+
+	@Label("Player")
+	String player;
+
+	@Label("Ply")
+	@Description("Number of pieces on the board before the move")
+	int ply;
+
+	@Label("Position")
+	@Description("Key of the position shared with its mirror image, as used by the transposition table")
+	long position;
+
+	@Label("Depth")
+	@Description("Depth of the last completed search, 0 if the move was not searched")
+	int depth;
+
+	@Label("Nodes")
+	long nodes;
+
+	@Label("Score")
+	@Description("Packed score of the chosen move for the player")
+	int score;
+
+	@Label("Column")
+	@Description("Chosen column, starting from 0")
+	int column;
+
+	@Label("From Opening Book")
+	boolean fromBook;
+
+	@Label("Cache Capacity")
+	@Description("Number of entries of the transposition table")
+	int cacheCapacity;
+
+	@Label("Cache Size")
+	@DataAmount
+	long cacheSizeInBytes;
+
+	@Label("Cache Evictions")
+	@Description("Entries of the move overwritten by other positions of the same move")
+	long cacheEvictions;
+}
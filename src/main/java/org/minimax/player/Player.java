@@ -2,14 +2,17 @@ package org.minimax.player;
 
 import org.minimax.Board;
 import org.minimax.Color;
+import org.minimax.RandomHelper;
 
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 public abstract class Player {
 
 	private final Color m_color;
 	private final int m_turnOrder;
 	private final List<Color> m_players;
+	private RandomGenerator m_random;
 
 	/**
 	 * @param color color this player will play with
@@ -37,13 +40,46 @@ public abstract class Player {
 		return m_players;
 	}
 
+	/**
+	 * Returns the stream of all the random choices of this player, split from the global one on first use if none was
+	 * given, so that the players of a game given their streams never draw from the global one.
+	 */
+	protected RandomGenerator getRandom() {
+		if (m_random == null) m_random = RandomHelper.split();
+		return m_random;
+	}
+
+	/**
+	 * Sets the random stream of this player, so that its choices can be reproduced whatever the other players and
+	 * threads do.
+	 */
+	public void setRandom(final RandomGenerator random) {
+		m_random = random;
+	}
+
 	public abstract void init();
 
+	/**
+	 * Called once the game is over, so that the player stops what it does between its moves.
+	 */
+	public void onGameOver() {
+	}
+
 	// Use interface so players cannot alter the board directly
 	public abstract int play(final Board board);
 
 	protected abstract String name();
 
+	/**
+	 * Returns one of the columns of the mask at random.
+	 */
+	protected int pickRandomColumn(long columns) {
+		for (int k = getRandom().nextInt(Long.bitCount(columns)); k > 0; k--) {
+			columns &= columns - 1;
+		}
+		return Long.numberOfTrailingZeros(columns);
+	}
+
 	@Override
 	public String toString() {
 		return name() + '[' + m_color.getCharacter() + ']';
@@ -1,6 +1,8 @@
 package org.minimax.player;
 
 import org.minimax.Color;
+import org.minimax.Constants;
+import org.minimax.book.OpeningBook;
 
 import java.util.List;
 
@@ -38,6 +40,98 @@ public enum PlayerType {
 			return new SimpleMinimaxPlayer(color, players, 12);
 		}
 	},
+
+	PARALLEL_MINIMAX_12 {
+		@Override
+		public Player instantiate(final Color color, final List<Color> players) {
+			return new SimpleMinimaxPlayer(color, players, 12, Constants.DEFAULT_CACHE_SIZE_MB, Constants.AVAILABLE_PROCESSORS);
+		}
+	},
+
+	PERSISTENT_MINIMAX_12 {
+		@Override
+		public Player instantiate(final Color color, final List<Color> players) {
+			final SimpleMinimaxPlayer player = new SimpleMinimaxPlayer(color, players, 12);
+			player.setCachePersistent(true);
+			return player;
+		}
+	},
+
+	BOOK_MINIMAX_12 {
+		@Override
+		public Player instantiate(final Color color, final List<Color> players) {
+			final SimpleMinimaxPlayer player = new SimpleMinimaxPlayer(color, players, 12);
+			player.setOpeningBook(OpeningBook.getDefault());
+			return player;
+		}
+	},
+
+	PONDERING_MINIMAX_12 {
+		@Override
+		public Player instantiate(final Color color, final List<Color> players) {
+			final SimpleMinimaxPlayer player = new SimpleMinimaxPlayer(color, players, 12);
+			player.setPondering(true);
+			return player;
+		}
+	},
+
+	PVS_MINIMAX_12 {
+		@Override
+		public Player instantiate(final Color color, final List<Color> players) {
+			final SimpleMinimaxPlayer player = new SimpleMinimaxPlayer(color, players, 12);
+			player.setPrincipalVariationSearch(true);
+			return player;
+		}
+	},
+
+	THREAT_MINIMAX_5 {
+		@Override
+		public Player instantiate(final Color color, final List<Color> players) {
+			return new ThreatMinimaxPlayer(color, players, 5);
+		}
+	},
+
+	THREAT_MINIMAX_8 {
+		@Override
+		public Player instantiate(final Color color, final List<Color> players) {
+			return new ThreatMinimaxPlayer(color, players, 8);
+		}
+	},
+
+	TIMED_THREAT_MINIMAX_1S {
+		@Override
+		public Player instantiate(final Color color, final List<Color> players) {
+			return new ThreatMinimaxPlayer(color, players, Integer.MAX_VALUE, 1000);
+		}
+	},
+
+	MAXN_THREAT_4 {
+		@Override
+		public Player instantiate(final Color color, final List<Color> players) {
+			return new ThreatMaxnPlayer(color, players, 4);
+		}
+	},
+
+	MAXN_THREAT_6 {
+		@Override
+		public Player instantiate(final Color color, final List<Color> players) {
+			return new ThreatMaxnPlayer(color, players, 6);
+		}
+	},
+
+	TIMED_MINIMAX_100MS {
+		@Override
+		public Player instantiate(final Color color, final List<Color> players) {
+			return new TimedMinimaxPlayer(color, players, 100);
+		}
+	},
+
+	TIMED_MINIMAX_1S {
+		@Override
+		public Player instantiate(final Color color, final List<Color> players) {
+			return new TimedMinimaxPlayer(color, players, 1000);
+		}
+	},
 	;
 
 	public abstract Player instantiate(final Color color, final List<Color> players);
@@ -2,7 +2,6 @@ package org.minimax.player;
 
 import org.minimax.Board;
 import org.minimax.Color;
-import org.minimax.RandomHelper;
 
 import java.util.List;
 
@@ -19,7 +18,7 @@ public class RandomPlayer extends Player {
 	@Override
 	public int play(final Board board) {
 		final List<Integer> playable = board.getPlayableColumns();
-		return playable.get(RandomHelper.nextInt(playable.size()));
+		return playable.get(getRandom().nextInt(playable.size()));
 	}
 
 	@Override
@@ -2,15 +2,28 @@ package org.minimax.player;
 
 import org.minimax.Board;
 import org.minimax.Color;
+import org.minimax.Constants;
 
 import java.util.List;
 
 public class SimpleMinimaxPlayer extends MinimaxPlayer {
 	private final int m_maxDepth;
+	private final int m_threadCount;
 
 	public SimpleMinimaxPlayer(final Color color, final List<Color> players, final int maxDepth) {
-		super(color, players);
+		this(color, players, maxDepth, Constants.DEFAULT_CACHE_SIZE_MB, 1);
+	}
+
+	public SimpleMinimaxPlayer(final Color color, final List<Color> players, final int maxDepth, final int cacheSizeInMb) {
+		this(color, players, maxDepth, cacheSizeInMb, 1);
+	}
+
+	public SimpleMinimaxPlayer(final Color color, final List<Color> players, final int maxDepth,
+							   final int cacheSizeInMb, final int threadCount) {
+		super(color, players, cacheSizeInMb);
+		if (threadCount <= 0) throw new IllegalArgumentException("Invalid thread count: " + threadCount);
 		m_maxDepth = maxDepth;
+		m_threadCount = threadCount;
 	}
 
 	@Override
@@ -22,6 +35,11 @@ public class SimpleMinimaxPlayer extends MinimaxPlayer {
 		return m_maxDepth;
 	}
 
+	@Override
+	protected int getThreadCount() {
+		return m_threadCount;
+	}
+
 	@Override
 	protected int computeHeuristic(final Board board) {
 		return 0;
@@ -29,6 +47,7 @@ public class SimpleMinimaxPlayer extends MinimaxPlayer {
 
 	@Override
 	protected String name() {
+		if (m_threadCount > 1) return "SimpleMinimax-" + m_maxDepth + 'x' + m_threadCount;
 		return "SimpleMinimax-" + m_maxDepth;
 	}
 }
@@ -0,0 +1,143 @@
+package org.minimax.player;
+
+import org.minimax.Board;
+import org.minimax.Color;
+import org.minimax.Constants;
+import org.minimax.search.PackedScore;
+
+import java.util.List;
+
+/**
+ * Minimax player searching every position until the end of the game, so that its moves are proven : it never loses a
+ * won position, and never loses a drawn one.<br>
+ * Before searching, the position is checked for immediate wins and for the moves letting the next player win at once,
+ * which are never searched. When a single move is left, it is forced and only that one is searched.<br>
+ * Entries of a full search are exact whatever the root, so the transposition table is kept from one position to the
+ * next.
+ */
+public class SolverPlayer extends MinimaxPlayer {
+
+	public enum Mode {
+		/**
+		 * Only proves whether the position is won, drawn or lost, with null window searches around the draw. Best moves
+		 * are all the moves keeping that outcome.
+		 */
+		WEAK,
+		/**
+		 * Also finds the number of turns before the end, with a full window search. Best moves are the fastest wins
+		 * and the longest losses.
+		 */
+		STRONG,
+	}
+
+	public enum Outcome {
+		WIN,
+		DRAW,
+		LOSS,
+	}
+
+	/**
+	 * @param outcome outcome of the position for the player to move, with best play of every player
+	 * @param turnsBeforeEnd if positive, the player to move wins in that many turns, counting its own move ; if
+	 *                       negative, it loses ; 0 for a draw, or when the weak solve did not need to find it
+	 * @param bestMoves mask of the columns giving that outcome
+	 * @param forced whether a single move did not lose at once, so that only that one was searched
+	 * @param nodeCount number of searched nodes
+	 */
+	public record Solution(Outcome outcome, int turnsBeforeEnd, long bestMoves, boolean forced, long nodeCount) {
+	}
+
+	private final Mode m_mode;
+
+	public SolverPlayer(final Color color, final List<Color> players, final Mode mode) {
+		this(color, players, mode, Constants.DEFAULT_CACHE_SIZE_MB);
+	}
+
+	/**
+	 * @param cacheSizeInMb memory allocated to the transposition table
+	 */
+	public SolverPlayer(final Color color, final List<Color> players, final Mode mode, final int cacheSizeInMb) {
+		super(color, players, cacheSizeInMb);
+		m_mode = mode;
+		setCachePersistent(true);
+	}
+
+	@Override
+	public void init() {
+	}
+
+	@Override
+	protected int getMaxDepth() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	protected int computeHeuristic(final Board board) {
+		return 0;
+	}
+
+	@Override
+	public long getBestMoves(final Board board) {
+		return solve(board).bestMoves();
+	}
+
+	/**
+	 * Solves the position, which must not be finished, for this player to move.
+	 */
+	public Solution solve(final Board board) {
+		if (board.isFull() || board.getWinner().isPresent()) throw new IllegalArgumentException("The game is already over");
+
+		final long winningMoves = board.getWinningColumns(getColor());
+		if (winningMoves != 0) return new Solution(Outcome.WIN, 1, winningMoves, false, 0);
+
+		final Color next = getPlayers().get((getTurnOrder() + 1) % getPlayerCount());
+		final long nonLosingMoves = getNonLosingMoves(board, next);
+		if (nonLosingMoves == 0) {
+			// Whatever this player does, the next one wins on its turn
+			return new Solution(Outcome.LOSS, -2, getPlayableMoves(board), false, 0);
+		}
+		final boolean forced = Long.bitCount(nonLosingMoves) == 1;
+
+		if (m_mode == Mode.STRONG) {
+			final long bestMoves = getBestMoves(board, nonLosingMoves, PackedScore.WORST, PackedScore.BEST);
+			final int score = getLastScore();
+			final Outcome outcome = score > PackedScore.DRAW ? Outcome.WIN : score < PackedScore.DRAW ? Outcome.LOSS : Outcome.DRAW;
+			return new Solution(outcome, PackedScore.turnsBeforeEnd(score), bestMoves, forced, getLastNodeCount());
+		}
+
+		// Every win reaches the window above the draw, so all the winning moves are found at once
+		final long winning = getBestMoves(board, nonLosingMoves, PackedScore.DRAW, PackedScore.DRAW + 1);
+		long nodeCount = getLastNodeCount();
+		if (getLastScore() > PackedScore.DRAW) return new Solution(Outcome.WIN, 0, winning, forced, nodeCount);
+
+		final long drawing = getBestMoves(board, nonLosingMoves, PackedScore.DRAW - 1, PackedScore.DRAW);
+		nodeCount += getLastNodeCount();
+		if (getLastScore() == PackedScore.DRAW) return new Solution(Outcome.DRAW, 0, drawing, forced, nodeCount);
+		return new Solution(Outcome.LOSS, 0, nonLosingMoves, forced, nodeCount);
+	}
+
+	/**
+	 * Returns the mask of the columns where the player to move can play without letting the next player win at once,
+	 * which may be empty : the single column blocking a threat of the next player if it has one, none if it has more,
+	 * and never a column below a cell where it would win.
+	 */
+	public static long getNonLosingMoves(final Board board, final Color next) {
+		final long threats = board.getWinningColumns(next);
+		if (Long.bitCount(threats) > 1) return 0L;
+		final long moves = threats != 0 ? threats : getPlayableMoves(board);
+		return moves & ~board.getColumnsGivingWin(next);
+	}
+
+	private static long getPlayableMoves(final Board board) {
+		long moves = 0L;
+		for (final int column : board.getPlayableColumns()) {
+			moves |= 1L << column;
+		}
+		return moves;
+	}
+
+	@Override
+	protected String name() {
+		return m_mode == Mode.WEAK ? "WeakSolver" : "StrongSolver";
+	}
+}
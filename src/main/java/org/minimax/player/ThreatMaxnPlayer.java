@@ -0,0 +1,39 @@
+package org.minimax.player;
+
+import org.minimax.Board;
+import org.minimax.Color;
+
+import java.util.List;
+
+/**
+ * Max<sup>n</sup> player valuing each player's position with the same windows as {@link ThreatMinimaxPlayer}.
+ */
+public class ThreatMaxnPlayer extends MaxnPlayer {
+	private final int m_maxDepth;
+
+	public ThreatMaxnPlayer(final Color color, final List<Color> players, final int maxDepth) {
+		super(color, players);
+		m_maxDepth = maxDepth;
+	}
+
+	@Override
+	public void init() {
+	}
+
+	@Override
+	protected int getMaxDepth() {
+		return m_maxDepth;
+	}
+
+	@Override
+	protected void computeHeuristics(final Board board, final int[] values) {
+		for (int turnOrder = 0; turnOrder < values.length; turnOrder++) {
+			values[turnOrder] = ThreatMinimaxPlayer.evaluate(board, getPlayers().get(turnOrder), turnOrder);
+		}
+	}
+
+	@Override
+	protected String name() {
+		return "ThreatMaxn-" + m_maxDepth;
+	}
+}
@@ -0,0 +1,88 @@
+package org.minimax.player;
+
+import org.minimax.Board;
+import org.minimax.Color;
+import org.minimax.WindowTracker;
+
+import java.util.List;
+
+/**
+ * Minimax player evaluating the positions at its horizon with the windows where each player can still win :
+ * <ul>
+ *     <li>open windows missing one piece (threats) or two pieces,</li>
+ *     <li>with two players, threats on rows of the player's parity, which are the ones the end of the game forces
+ *     the opponent to give : odd rows from the bottom for the first player, even rows for the second one,</li>
+ *     <li>center control, as center pieces belong to the most windows.</li>
+ * </ul>
+ * The value of a position is the one of the player minus the ones of all the other players.<br>
+ * The windows are counted by the board as the search plays and cancels moves, so an evaluation costs a few reads.
+ */
+public class ThreatMinimaxPlayer extends MinimaxPlayer {
+	private static final int CENTER_WEIGHT = 1;
+	private static final int OPEN_TWO_WEIGHT = 4;
+	private static final int THREAT_WEIGHT = 16;
+	private static final int GOOD_PARITY_THREAT_WEIGHT = 32;
+
+	private final int m_maxDepth;
+	private final long m_timeBudgetMillis;
+
+	public ThreatMinimaxPlayer(final Color color, final List<Color> players, final int maxDepth) {
+		this(color, players, maxDepth, 0);
+	}
+
+	/**
+	 * @param timeBudgetMillis if strictly positive, time after which the player stops deepening its search
+	 */
+	public ThreatMinimaxPlayer(final Color color, final List<Color> players, final int maxDepth, final long timeBudgetMillis) {
+		super(color, players);
+		m_maxDepth = maxDepth;
+		m_timeBudgetMillis = timeBudgetMillis;
+		if (timeBudgetMillis > 0) setCachePersistent(true);
+	}
+
+	@Override
+	public void init() {
+	}
+
+	@Override
+	protected int getMaxDepth() {
+		return m_maxDepth;
+	}
+
+	@Override
+	protected long getTimeBudgetMillis() {
+		return m_timeBudgetMillis;
+	}
+
+	@Override
+	protected int computeHeuristic(final Board board) {
+		int value = 0;
+		for (int turnOrder = 0; turnOrder < getPlayerCount(); turnOrder++) {
+			final int playerValue = evaluate(board, getPlayers().get(turnOrder), turnOrder);
+			value += turnOrder == getTurnOrder() ? playerValue : -playerValue;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the positive value of the position for the given player alone.
+	 */
+	static int evaluate(final Board board, final Color color, final int turnOrder) {
+		final WindowTracker windows = board.getWindows();
+		final int countToWin = board.getCountToWin();
+		int value = CENTER_WEIGHT * windows.getCenterControl(color)
+				+ THREAT_WEIGHT * windows.getOpenWindowCount(color, countToWin - 1);
+		if (countToWin > 2) value += OPEN_TWO_WEIGHT * windows.getOpenWindowCount(color, countToWin - 2);
+		if (board.getColors().size() == 2) {
+			// The first player owns the rows with an odd number from the bottom, whose index is even
+			value += GOOD_PARITY_THREAT_WEIGHT * windows.getThreatCount(color, turnOrder);
+		}
+		return value;
+	}
+
+	@Override
+	protected String name() {
+		if (m_timeBudgetMillis > 0) return "ThreatMinimax-" + m_timeBudgetMillis + "ms";
+		return "ThreatMinimax-" + m_maxDepth;
+	}
+}
@@ -0,0 +1,45 @@
+package org.minimax.player;
+
+import org.minimax.Board;
+import org.minimax.Color;
+
+import java.util.List;
+
+/**
+ * Minimax player searching deeper and deeper until its time budget for the move has elapsed.
+ */
+public class TimedMinimaxPlayer extends MinimaxPlayer {
+	private final long m_timeBudgetMillis;
+
+	public TimedMinimaxPlayer(final Color color, final List<Color> players, final long timeBudgetMillis) {
+		super(color, players);
+		if (timeBudgetMillis <= 0) throw new IllegalArgumentException("Invalid time budget: " + timeBudgetMillis + " ms");
+		m_timeBudgetMillis = timeBudgetMillis;
+		// Its moves depend on the timing anyway, so it may as well start from the previous moves work
+		setCachePersistent(true);
+	}
+
+	@Override
+	public void init() {
+	}
+
+	@Override
+	protected int getMaxDepth() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	protected long getTimeBudgetMillis() {
+		return m_timeBudgetMillis;
+	}
+
+	@Override
+	protected int computeHeuristic(final Board board) {
+		return 0;
+	}
+
+	@Override
+	protected String name() {
+		return "TimedMinimax-" + m_timeBudgetMillis + "ms";
+	}
+}
@@ -0,0 +1,27 @@
+package org.minimax.search;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the clear or the reset of a {@link TranspositionTable}, whose duration is the one of the
+ * clear.
+ */
+@Name("org.minimax.CacheClear")
+@Label("Transposition Table Clear")
+@Category({"Connect Four", "Search"})
+@Description("Clear of all the entries of a transposition table")
+final class CacheClearEvent extends Event {
+
+	@Label("Capacity")
+	@Description("Number of entries of the table")
+	int capacity;
+
+	@Label("Size")
+	@DataAmount
+	long sizeInBytes;
+}
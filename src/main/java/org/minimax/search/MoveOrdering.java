@@ -0,0 +1,234 @@
+package org.minimax.search;
+
+import org.minimax.Board;
+import org.minimax.Color;
+import org.minimax.Constants;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Orders the playable columns of each node so that the moves most likely to cause a cutoff are searched first.<br>
+ * Each heuristic can be enabled separately, and the ordering counts how many cutoffs happened on the first move
+ * because of each of them, to measure their contribution.<br>
+ * Moves are written in preallocated buffers, one by ply, so ordering allocates nothing during the search.
+ */
+public final class MoveOrdering {
+
+	public enum Heuristic {
+		/**
+		 * Best move stored in the transposition table for the position.
+		 */
+		CACHED_MOVE,
+		/**
+		 * Last two moves which caused a cutoff at the same ply.
+		 */
+		KILLER_MOVES,
+		/**
+		 * Moves which caused the most cutoffs for the same player, weighted by the remaining depth.
+		 */
+		HISTORY,
+		/**
+		 * Columns closest to the center first, as they belong to the most alignments.
+		 */
+		CENTER_FIRST,
+	}
+
+	private static final int KILLER_COUNT = 2;
+
+	private static final long CACHED_MOVE_PRIORITY = 1L << 62;
+	private static final long KILLER_PRIORITY = 1L << 60;
+	private static final int HISTORY_SHIFT = 16;
+	private static final int MAX_HISTORY = 1 << 30;
+
+	/**
+	 * Source of moves which were not placed by any heuristic.
+	 */
+	private static final int UNORDERED = Heuristic.values().length;
+
+	private final Set<Heuristic> m_heuristics;
+	private final boolean m_cachedMoveFirst;
+	private final boolean m_killerMoves;
+	private final boolean m_history;
+	private final boolean m_centerFirst;
+
+	private int m_width;
+	private int[][] m_moves = new int[0][];
+	private long[][] m_priorities = new long[0][];
+	private int[][] m_sources = new int[0][];
+	private int[][] m_killers = new int[0][];
+	private int[][] m_historyScores = new int[0][];
+
+	private final long[] m_firstMoveCutoffs = new long[UNORDERED + 1];
+	private long m_cutoffCount;
+
+	public MoveOrdering(final Set<Heuristic> heuristics) {
+		m_heuristics = heuristics.isEmpty() ? EnumSet.noneOf(Heuristic.class) : EnumSet.copyOf(heuristics);
+		m_cachedMoveFirst = m_heuristics.contains(Heuristic.CACHED_MOVE);
+		m_killerMoves = m_heuristics.contains(Heuristic.KILLER_MOVES);
+		m_history = m_heuristics.contains(Heuristic.HISTORY);
+		m_centerFirst = m_heuristics.contains(Heuristic.CENTER_FIRST);
+	}
+
+	/**
+	 * Prepares the ordering for a new search on the given board, clearing the killer moves and aging the history.
+	 */
+	public void newSearch(final Board board) {
+		final int width = board.getWidth();
+		final int maxPly = board.getWidth() * board.getHeight() - board.getPieceCount() + 1;
+		if (width != m_width || maxPly > m_moves.length) {
+			m_width = width;
+			m_moves = new int[maxPly][width];
+			m_priorities = new long[maxPly][width];
+			m_sources = new int[maxPly][width];
+			m_killers = new int[maxPly][KILLER_COUNT];
+			m_historyScores = new int[Constants.MAX_PLAYER_COUNT][width];
+		}
+
+		for (final int[] killers : m_killers) {
+			Arrays.fill(killers, -1);
+		}
+		for (final int[] history : m_historyScores) {
+			for (int x = 0; x < width; x++) {
+				history[x] >>= 1;
+			}
+		}
+	}
+
+	/**
+	 * Writes the playable columns of the board in the buffer of the given ply, best first.
+	 * @param cachedMove best move stored for this position, or any column outside the board
+	 * @return number of playable columns, which can be read with {@link #getMove(int, int)}
+	 */
+	public int order(final Board board, final int ply, final Color color, final int cachedMove) {
+		return order(board, ply, color, cachedMove, -1L);
+	}
+
+	/**
+	 * Same as {@link #order(Board, int, Color, int)}, only keeping the playable columns of the given mask, for boards up
+	 * to 64 columns.
+	 */
+	public int order(final Board board, final int ply, final Color color, final int cachedMove, final long columns) {
+		final int[] moves = m_moves[ply];
+		final long[] priorities = m_priorities[ply];
+		final int[] sources = m_sources[ply];
+		final int[] killers = m_killers[ply];
+		final int[] history = m_historyScores[color.getId()];
+
+		int count = 0;
+		for (int x = 0; x < m_width; x++) {
+			if (!board.canPlay(x) || (columns & (1L << x)) == 0) continue;
+
+			long priority = 0L;
+			int source = UNORDERED;
+			if (m_centerFirst) {
+				priority = m_width - Math.abs(2 * x - (m_width - 1));
+				source = Heuristic.CENTER_FIRST.ordinal();
+			}
+			if (m_history && history[x] > 0) {
+				priority += (long) history[x] << HISTORY_SHIFT;
+				source = Heuristic.HISTORY.ordinal();
+			}
+			if (m_killerMoves) {
+				for (int k = 0; k < KILLER_COUNT; k++) {
+					if (killers[k] == x) {
+						priority += KILLER_PRIORITY * (KILLER_COUNT - k);
+						source = Heuristic.KILLER_MOVES.ordinal();
+						break;
+					}
+				}
+			}
+			if (m_cachedMoveFirst && x == cachedMove) {
+				priority += CACHED_MOVE_PRIORITY;
+				source = Heuristic.CACHED_MOVE.ordinal();
+			}
+
+			// Insertion sort, stable so that equal priorities keep the columns order
+			int i = count;
+			while (i > 0 && priorities[i - 1] < priority) {
+				moves[i] = moves[i - 1];
+				priorities[i] = priorities[i - 1];
+				sources[i] = sources[i - 1];
+				i--;
+			}
+			moves[i] = x;
+			priorities[i] = priority;
+			sources[i] = source;
+			count++;
+		}
+		return count;
+	}
+
+	public int getMove(final int ply, final int index) {
+		return m_moves[ply][index];
+	}
+
+	/**
+	 * Records that the move at the given index of the ply buffer caused a cutoff.
+	 */
+	public void onCutoff(final int ply, final Color color, final int index, final int remainingDepth) {
+		final int move = m_moves[ply][index];
+		m_cutoffCount++;
+		if (index == 0) m_firstMoveCutoffs[m_sources[ply][0]]++;
+
+		final int[] killers = m_killers[ply];
+		if (killers[0] != move) {
+			System.arraycopy(killers, 0, killers, 1, KILLER_COUNT - 1);
+			killers[0] = move;
+		}
+
+		final int[] history = m_historyScores[color.getId()];
+		history[move] = Math.min(MAX_HISTORY, history[move] + remainingDepth * remainingDepth);
+	}
+
+	// region ===== STATISTICS =====
+
+	public boolean isEnabled(final Heuristic heuristic) {
+		return m_heuristics.contains(heuristic);
+	}
+
+	/**
+	 * Returns the number of cutoffs caused by the first move while it was placed there by the given heuristic.
+	 */
+	public long getFirstMoveCutoffs(final Heuristic heuristic) {
+		return m_firstMoveCutoffs[heuristic.ordinal()];
+	}
+
+	/**
+	 * Returns the number of cutoffs caused by the first move while no heuristic placed it there.
+	 */
+	public long getUnorderedFirstMoveCutoffs() {
+		return m_firstMoveCutoffs[UNORDERED];
+	}
+
+	public long getCutoffCount() {
+		return m_cutoffCount;
+	}
+
+	/**
+	 * Adds the statistics of another ordering, such as the one of another thread of the same search, to this one.
+	 */
+	public void mergeStatistics(final MoveOrdering other) {
+		for (int i = 0; i < m_firstMoveCutoffs.length; i++) {
+			m_firstMoveCutoffs[i] += other.m_firstMoveCutoffs[i];
+		}
+		m_cutoffCount += other.m_cutoffCount;
+	}
+
+	public void resetStatistics() {
+		Arrays.fill(m_firstMoveCutoffs, 0L);
+		m_cutoffCount = 0;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("Cutoffs: ").append(m_cutoffCount).append(", on first move:");
+		for (final Heuristic heuristic : Heuristic.values()) {
+			if (isEnabled(heuristic)) sb.append(' ').append(heuristic).append('=').append(getFirstMoveCutoffs(heuristic));
+		}
+		return sb.append(" UNORDERED=").append(getUnorderedFirstMoveCutoffs()).toString();
+	}
+
+	// endregion
+}
@@ -0,0 +1,71 @@
+package org.minimax.search;
+
+/**
+ * Scores packed into a single integer, so that the search compares them with the natural integer order and never
+ * allocates them :<br>
+ * WORST = lost in 1 turn < lost in 2 turns < ... < -MAX_HEURISTIC < heuristics < MAX_HEURISTIC < ... < won in 2 turns
+ * < won in 1 turn = BEST<br>
+ * Negating a score gives the same score from the point of view of the opponent.
+ */
+public final class PackedScore {
+	private PackedScore() {}
+
+	public static final int WIN = 1 << 30;
+	/**
+	 * Heuristics are clamped strictly between -MAX_HEURISTIC and MAX_HEURISTIC.
+	 */
+	public static final int MAX_HEURISTIC = 1 << 24;
+
+	public static final int BEST = WIN - 1;
+	public static final int WORST = -BEST;
+	public static final int DRAW = 0;
+
+	public static int heuristic(final int value) {
+		return Math.max(-MAX_HEURISTIC + 1, Math.min(MAX_HEURISTIC - 1, value));
+	}
+
+	/**
+	 * @param turnsBeforeEnd if positive, the player wins in that many turns ; if negative, the opponent does ;
+	 *                       if 0, the score is the given heuristic value
+	 */
+	public static int of(final int value, final int turnsBeforeEnd) {
+		if (turnsBeforeEnd > 0) return WIN - turnsBeforeEnd;
+		if (turnsBeforeEnd < 0) return -WIN - turnsBeforeEnd;
+		return heuristic(value);
+	}
+
+	public static boolean isEnd(final int score) {
+		return score >= MAX_HEURISTIC || score <= -MAX_HEURISTIC;
+	}
+
+	public static int turnsBeforeEnd(final int score) {
+		if (score >= MAX_HEURISTIC) return WIN - score;
+		if (score <= -MAX_HEURISTIC) return -WIN - score;
+		return 0;
+	}
+
+	/**
+	 * Returns the heuristic value of the score, or 0 if it is a won or lost score.
+	 */
+	public static int value(final int score) {
+		return isEnd(score) ? 0 : score;
+	}
+
+	/**
+	 * Returns the score one turn earlier : ends get one turn further, heuristics are unchanged.
+	 */
+	public static int increaseTurnsBeforeEnd(final int score) {
+		if (score >= MAX_HEURISTIC) return score - 1;
+		if (score <= -MAX_HEURISTIC) return score + 1;
+		return score;
+	}
+
+	/**
+	 * Inverse of {@link #increaseTurnsBeforeEnd(int)}, ends in 1 turn are left as they are.
+	 */
+	public static int decreaseTurnsBeforeEnd(final int score) {
+		if (score >= MAX_HEURISTIC && score < BEST) return score + 1;
+		if (score <= -MAX_HEURISTIC && score > WORST) return score - 1;
+		return score;
+	}
+}
@@ -0,0 +1,214 @@
+package org.minimax.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts what a search did : the nodes and cutoffs of each ply, the transposition table probes, and the duration and
+ * nodes of each completed depth.<br>
+ * Each searching thread fills its own statistics, which are merged once its work is done, so collecting them costs a
+ * few increments by node and no synchronization.
+ */
+public final class SearchStatistics {
+
+	private final long[] m_nodes;
+	private final long[] m_cutoffs;
+	private final long[] m_firstMoveCutoffs;
+	private long m_cacheProbes;
+	private long m_cacheHits;
+	private long m_cacheCutoffs;
+
+	private int m_depthCount;
+	private final int[] m_depths;
+	private final long[] m_depthNanos;
+	private final long[] m_depthNodes;
+	private long m_nodesBeforeDepth;
+
+	/**
+	 * @param maxPly highest ply the search can reach
+	 */
+	public SearchStatistics(final int maxPly) {
+		m_nodes = new long[maxPly + 1];
+		m_cutoffs = new long[maxPly + 1];
+		m_firstMoveCutoffs = new long[maxPly + 1];
+		m_depths = new int[maxPly + 1];
+		m_depthNanos = new long[maxPly + 1];
+		m_depthNodes = new long[maxPly + 1];
+	}
+
+	// region ===== COLLECTION =====
+
+	public void onNode(final int ply) {
+		m_nodes[ply]++;
+	}
+
+	/**
+	 * @param hit whether the table held an entry for the position, usable or not
+	 */
+	public void onCacheProbe(final boolean hit) {
+		m_cacheProbes++;
+		if (hit) m_cacheHits++;
+	}
+
+	/**
+	 * Records that the entry of the table was deep enough to give the score of the node without searching it.
+	 */
+	public void onCacheCutoff() {
+		m_cacheCutoffs++;
+	}
+
+	/**
+	 * @param moveIndex index of the move which caused the cutoff in the order it was searched
+	 */
+	public void onCutoff(final int ply, final int moveIndex) {
+		m_cutoffs[ply]++;
+		if (moveIndex == 0) m_firstMoveCutoffs[ply]++;
+	}
+
+	/**
+	 * Records that the search to the given depth completed, with the nodes counted since the previous one.
+	 */
+	public void onDepthCompleted(final int depth, final long nanos) {
+		final long nodes = getNodeCount();
+		m_depths[m_depthCount] = depth;
+		m_depthNanos[m_depthCount] = nanos;
+		m_depthNodes[m_depthCount] = nodes - m_nodesBeforeDepth;
+		m_depthCount++;
+		m_nodesBeforeDepth = nodes;
+	}
+
+	/**
+	 * Adds the node, cutoff and cache counts of another thread of the same search.
+	 */
+	public void merge(final SearchStatistics other) {
+		for (int ply = 0; ply < Math.min(m_nodes.length, other.m_nodes.length); ply++) {
+			m_nodes[ply] += other.m_nodes[ply];
+			m_cutoffs[ply] += other.m_cutoffs[ply];
+			m_firstMoveCutoffs[ply] += other.m_firstMoveCutoffs[ply];
+		}
+		m_cacheProbes += other.m_cacheProbes;
+		m_cacheHits += other.m_cacheHits;
+		m_cacheCutoffs += other.m_cacheCutoffs;
+	}
+
+	// endregion
+
+	// region ===== GETTERS =====
+
+	/**
+	 * Returns the number of plies for which the statistics are kept, the root being ply 0.
+	 */
+	public int getPlyCount() {
+		return m_nodes.length;
+	}
+
+	public long getNodeCount() {
+		long nodes = 0;
+		for (final long count : m_nodes) {
+			nodes += count;
+		}
+		return nodes;
+	}
+
+	public long getNodeCount(final int ply) {
+		return m_nodes[ply];
+	}
+
+	public long getCutoffCount(final int ply) {
+		return m_cutoffs[ply];
+	}
+
+	/**
+	 * Returns the number of cutoffs of the ply caused by the first searched move, which a perfect ordering always gives.
+	 */
+	public long getFirstMoveCutoffCount(final int ply) {
+		return m_firstMoveCutoffs[ply];
+	}
+
+	public long getCacheProbes() {
+		return m_cacheProbes;
+	}
+
+	public long getCacheHits() {
+		return m_cacheHits;
+	}
+
+	public double getCacheHitRate() {
+		return m_cacheProbes == 0 ? 0.0d : (double) m_cacheHits / m_cacheProbes;
+	}
+
+	public long getCacheCutoffs() {
+		return m_cacheCutoffs;
+	}
+
+	public int getCompletedDepthCount() {
+		return m_depthCount;
+	}
+
+	/**
+	 * @param index index of the completed depth, in the order they were searched
+	 */
+	public int getCompletedDepth(final int index) {
+		return m_depths[index];
+	}
+
+	public long getDepthNanos(final int index) {
+		return m_depthNanos[index];
+	}
+
+	public long getDepthNodeCount(final int index) {
+		return m_depthNodes[index];
+	}
+
+	/**
+	 * Returns the branching factor b such that b<sup>d</sup> nodes are searched to reach the last completed depth d,
+	 * or 0 if no depth was completed.
+	 */
+	public double getEffectiveBranchingFactor() {
+		if (m_depthCount == 0) return 0.0d;
+		final long nodes = m_depthNodes[m_depthCount - 1];
+		return nodes == 0 ? 0.0d : Math.pow(nodes, 1.0d / m_depths[m_depthCount - 1]);
+	}
+
+	/**
+	 * Returns a snapshot of the statistics by metric name, ordered, for exporters. Per ply and per depth values are
+	 * suffixed by the ply or the depth, and plies which were never reached are left out.
+	 */
+	public Map<String, Number> toMetrics() {
+		final Map<String, Number> metrics = new LinkedHashMap<>();
+		metrics.put("nodes", getNodeCount());
+		metrics.put("cache.probes", m_cacheProbes);
+		metrics.put("cache.hits", m_cacheHits);
+		metrics.put("cache.hitRate", getCacheHitRate());
+		metrics.put("cache.cutoffs", m_cacheCutoffs);
+		metrics.put("branchingFactor", getEffectiveBranchingFactor());
+		for (int ply = 0; ply < m_nodes.length; ply++) {
+			if (m_nodes[ply] == 0) continue;
+			metrics.put("ply." + ply + ".nodes", m_nodes[ply]);
+			metrics.put("ply." + ply + ".cutoffs", m_cutoffs[ply]);
+			metrics.put("ply." + ply + ".firstMoveCutoffs", m_firstMoveCutoffs[ply]);
+		}
+		for (int i = 0; i < m_depthCount; i++) {
+			metrics.put("depth." + m_depths[i] + ".nanos", m_depthNanos[i]);
+			metrics.put("depth." + m_depths[i] + ".nodes", m_depthNodes[i]);
+		}
+		return metrics;
+	}
+
+	// endregion
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder(String.format("Nodes: %d, cache hits: %d/%d (%.1f%%), cache cutoffs: %d, branching factor: %.2f%n",
+				getNodeCount(), m_cacheHits, m_cacheProbes, 100 * getCacheHitRate(), m_cacheCutoffs, getEffectiveBranchingFactor()));
+		for (int ply = 0; ply < m_nodes.length; ply++) {
+			if (m_nodes[ply] == 0) continue;
+			sb.append(String.format("  ply %2d: %12d nodes, %12d cutoffs (%.1f%% on first move)%n", ply, m_nodes[ply], m_cutoffs[ply],
+					m_cutoffs[ply] == 0 ? 0.0d : 100.0d * m_firstMoveCutoffs[ply] / m_cutoffs[ply]));
+		}
+		for (int i = 0; i < m_depthCount; i++) {
+			sb.append(String.format("  depth %2d: %12d nodes in %.3f ms%n", m_depths[i], m_depthNodes[i], m_depthNanos[i] / 1e6));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,237 @@
+package org.minimax.search;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size transposition table backed by two preallocated primitive arrays, so its memory stays flat whatever
+ * the length of the search.<br>
+ * Entries are grouped by buckets of two slots : the first one keeps the deepest entry (depth-preferred), the second one
+ * always takes the entries the first one refused (always-replace).<br>
+ * The table can be kept from one search to the next : each search starts a new generation, and the first slot of a
+ * bucket always accepts an entry replacing one from a previous generation, so stale entries are evicted first while
+ * they can still be found until then. Generations are stored on 8 bits and compared by their distance to the current
+ * one. Every {@link #SWEEP_PERIOD} generations, the entries at least that old are removed, so that a stale entry never
+ * wraps around to the current generation.<br>
+ * {@link #reset()} empties the table in constant time, by starting a generation which is the only one whose entries can
+ * be found, the older ones being seen as empty slots until they are replaced or swept.<br>
+ * Each entry is a 64 bits key and a 64 bits data packed as :
+ * <pre>
+ * | score (32) | depth (8) | best move (8) | generation (8) | unused (6) | bound (2) |
+ * </pre>
+ * A data of {@link #MISS} means the slot is empty, which is why bounds start at 1.<br>
+ * The table can be shared by several searching threads without locks : the stored key is XORed with the data, so an
+ * entry whose key and data were written by different threads does not match its key anymore and is seen as a miss.
+ */
+public final class TranspositionTable {
+
+	public static final long MISS = 0L;
+
+	public static final int EXACT = 1;
+	public static final int LOWER = 2;
+	public static final int UPPER = 3;
+
+	public static final int MAX_DEPTH = 0xFF;
+	public static final int NO_MOVE = 0xFF;
+
+	private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+	private static final int SLOTS_PER_BUCKET = 2;
+
+	private static final int SCORE_SHIFT = 32;
+	private static final int DEPTH_SHIFT = 24;
+	private static final int MOVE_SHIFT = 16;
+	private static final int GENERATION_SHIFT = 8;
+	private static final long BOUND_MASK = 0b11L;
+	private static final int GENERATION_MASK = 0xFF;
+	/**
+	 * Half the number of distinct generations, so that the entries left by a sweep are less than 256 generations old
+	 * when the next one runs.
+	 */
+	static final int SWEEP_PERIOD = 128;
+
+	private final long[] m_keys;
+	private final long[] m_data;
+	private final int m_bucketMask;
+	private int m_generation;
+	/**
+	 * Number of generations, up to the current one, whose entries can be found.
+	 */
+	private int m_validGenerations = 1;
+
+	/**
+	 * @param sizeInMb memory used by the table, rounded down to a power of two number of buckets
+	 */
+	public TranspositionTable(final int sizeInMb) {
+		if (sizeInMb <= 0) throw new IllegalArgumentException("Invalid transposition table size: " + sizeInMb + " MB");
+
+		final long bucketCount = ((long) sizeInMb << 20) / (BYTES_PER_ENTRY * SLOTS_PER_BUCKET);
+		final int buckets = Integer.highestOneBit((int) Math.min(bucketCount, 1 << 29));
+		m_keys = new long[buckets * SLOTS_PER_BUCKET];
+		m_data = new long[buckets * SLOTS_PER_BUCKET];
+		m_bucketMask = buckets - 1;
+	}
+
+	/**
+	 * Returns the size in MB, a power of two between 1 and the given max size, of a table holding the positions reached
+	 * by a search of the given depth with the given number of moves by position.
+	 */
+	public static int getSizeInMb(final int moveCount, final int depth, final int maxSizeInMb) {
+		long positions = 1;
+		for (int d = 0; d < depth && positions < (1L << 40); d++) {
+			positions *= moveCount;
+		}
+		final long sizeInMb = (positions * BYTES_PER_ENTRY + (1 << 20) - 1) >> 20;
+		return Integer.highestOneBit((int) Math.max(1, Math.min(sizeInMb, maxSizeInMb)));
+	}
+
+	/**
+	 * Returns the packed data stored for this key, or {@link #MISS} if there is none.
+	 */
+	public long probe(final long key) {
+		final int index = index(key);
+		for (int slot = index; slot < index + SLOTS_PER_BUCKET; slot++) {
+			final long data = m_data[slot];
+			if (data != MISS && (m_keys[slot] ^ data) == key) {
+				if (generation(data) == m_generation) return data;
+				return age(data) < m_validGenerations ? refresh(slot, key, data) : MISS;
+			}
+		}
+		return MISS;
+	}
+
+	/**
+	 * Moves an entry found again by the current search to its generation, so that it is not evicted as stale.
+	 */
+	private long refresh(final int slot, final long key, final long data) {
+		final long refreshed = (data & ~(0xFFL << GENERATION_SHIFT)) | ((long) m_generation << GENERATION_SHIFT);
+		m_keys[slot] = key ^ refreshed;
+		m_data[slot] = refreshed;
+		return refreshed;
+	}
+
+	/**
+	 * @param depth remaining depth the score was searched to, capped at {@link #MAX_DEPTH}
+	 * @param bound one of {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+	 * @param bestMove best column found, or {@link #NO_MOVE}
+	 * @return whether the entry evicted one of another position stored by the current generation
+	 */
+	public boolean store(final long key, final int score, final int depth, final int bound, final int bestMove) {
+		final int index = index(key);
+		final long data = pack(score, Math.min(depth, MAX_DEPTH), m_generation, bound, bestMove);
+		final long deepest = m_data[index];
+		final long latest = m_data[index + 1];
+		final int slot;
+		if (latest != MISS && (m_keys[index + 1] ^ latest) == key) {
+			// Overwritten in place, so that a position never holds both slots of its bucket
+			slot = index + 1;
+		} else {
+			final boolean replaceDeepest = deepest == MISS || (m_keys[index] ^ deepest) == key
+					|| generation(deepest) != m_generation || depth >= depth(deepest);
+			slot = replaceDeepest ? index : index + 1;
+		}
+		final long replaced = m_data[slot];
+		final boolean evicted = replaced != MISS && generation(replaced) == m_generation && (m_keys[slot] ^ replaced) != key;
+		m_keys[slot] = key ^ data;
+		m_data[slot] = data;
+		return evicted;
+	}
+
+	/**
+	 * Starts a new search, whose entries replace the ones of the previous searches first.
+	 */
+	public void newGeneration() {
+		m_generation = (m_generation + 1) & GENERATION_MASK;
+		m_validGenerations = Math.min(m_validGenerations + 1, GENERATION_MASK + 1);
+		if (m_generation % SWEEP_PERIOD == 0) sweep();
+	}
+
+	/**
+	 * Starts a new search which cannot find the entries of the previous ones, without going through the table.
+	 */
+	public void reset() {
+		final CacheClearEvent event = new CacheClearEvent();
+		event.begin();
+		newGeneration();
+		m_validGenerations = 1;
+		if (event.shouldCommit()) {
+			event.capacity = getCapacity();
+			event.sizeInBytes = getSizeInBytes();
+			event.commit();
+		}
+	}
+
+	/**
+	 * Returns the number of generations since the one which stored the given data.
+	 */
+	private int age(final long data) {
+		return (m_generation - generation(data)) & GENERATION_MASK;
+	}
+
+	/**
+	 * Removes the entries at least {@link #SWEEP_PERIOD} generations old.
+	 */
+	private void sweep() {
+		for (int slot = 0; slot < m_data.length; slot++) {
+			final long data = m_data[slot];
+			if (data != MISS && age(data) >= SWEEP_PERIOD) {
+				m_keys[slot] = 0L;
+				m_data[slot] = MISS;
+			}
+		}
+	}
+
+	public void clear() {
+		final CacheClearEvent event = new CacheClearEvent();
+		event.begin();
+		Arrays.fill(m_keys, 0L);
+		Arrays.fill(m_data, MISS);
+		if (event.shouldCommit()) {
+			event.capacity = getCapacity();
+			event.sizeInBytes = getSizeInBytes();
+			event.commit();
+		}
+	}
+
+	public int getCapacity() {
+		return m_keys.length;
+	}
+
+	public long getSizeInBytes() {
+		return (long) getCapacity() * BYTES_PER_ENTRY;
+	}
+
+	private int index(final long key) {
+		return ((int) key & m_bucketMask) * SLOTS_PER_BUCKET;
+	}
+
+	// region ===== DATA =====
+
+	private static long pack(final int score, final int depth, final int generation, final int bound, final int bestMove) {
+		return ((long) score << SCORE_SHIFT)
+				| ((long) (depth & 0xFF) << DEPTH_SHIFT)
+				| ((long) (bestMove & 0xFF) << MOVE_SHIFT)
+				| ((long) (generation & 0xFF) << GENERATION_SHIFT)
+				| (bound & BOUND_MASK);
+	}
+
+	public static int score(final long data) {
+		return (int) (data >> SCORE_SHIFT);
+	}
+
+	public static int depth(final long data) {
+		return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+	}
+
+	public static int bestMove(final long data) {
+		return (int) (data >>> MOVE_SHIFT) & 0xFF;
+	}
+
+	public static int generation(final long data) {
+		return (int) (data >>> GENERATION_SHIFT) & 0xFF;
+	}
+
+	public static int bound(final long data) {
+		return (int) (data & BOUND_MASK);
+	}
+
+	// endregion
+}
@@ -0,0 +1,119 @@
+package org.minimax.tournament;
+
+import org.minimax.Game;
+import org.minimax.GameLog;
+import org.minimax.GameResult;
+import org.minimax.player.PlayerType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless two players games between player types, played concurrently on a fixed thread pool.<br>
+ * Each game instantiates its own players, so no state is shared between games, and results are only gathered by the
+ * calling thread once each game is done.<br>
+ * The seed of each game is drawn in order from the master seed of the tournament, and each player of a game draws
+ * from its own stream derived from it. Whatever the thread count, the same master seed then replays the same games, as
+ * long as the players themselves do not depend on timing.
+ */
+public final class Tournament {
+
+	public enum Pairing {
+		/**
+		 * Every entrant plays every other one.
+		 */
+		ROUND_ROBIN,
+		/**
+		 * The first entrant plays every other one, which do not play each other.
+		 */
+		GAUNTLET,
+	}
+
+	private final List<PlayerType> m_entrants;
+	private final Pairing m_pairing;
+	private final int m_gamesPerPairing;
+	private final int m_threadCount;
+	private final int m_width;
+	private final int m_height;
+	private final int m_countToWin;
+	private final long m_seed;
+	private GameLog m_log;
+
+	/**
+	 * @param gamesPerPairing number of games played by each pair of entrants, each one starting half of them
+	 * @param seed master seed of the tournament, from which every random choice of every game is derived
+	 */
+	public Tournament(final List<PlayerType> entrants, final Pairing pairing, final int gamesPerPairing, final int threadCount,
+					  final int width, final int height, final int countToWin, final long seed) {
+		if (entrants.size() < 2) throw new IllegalArgumentException("A tournament needs at least two entrants");
+		if (gamesPerPairing <= 0) throw new IllegalArgumentException("Invalid games per pairing: " + gamesPerPairing);
+		if (threadCount <= 0) throw new IllegalArgumentException("Invalid thread count: " + threadCount);
+		m_entrants = List.copyOf(entrants);
+		m_pairing = pairing;
+		m_gamesPerPairing = gamesPerPairing;
+		m_threadCount = threadCount;
+		m_width = width;
+		m_height = height;
+		m_countToWin = countToWin;
+		m_seed = seed;
+	}
+
+	/**
+	 * Sets the log to which every game is written as soon as it ends, or null for none.
+	 */
+	public void setGameLog(final GameLog log) {
+		m_log = log;
+	}
+
+	public TournamentResult run() throws InterruptedException {
+		final List<int[]> pairs = new ArrayList<>();
+		for (int i = 0; i < m_entrants.size(); i++) {
+			for (int j = i + 1; j < m_entrants.size(); j++) {
+				if (m_pairing == Pairing.GAUNTLET && i > 0) break;
+				pairs.add(new int[]{i, j});
+			}
+		}
+
+		final SplittableRandom seeds = new SplittableRandom(m_seed);
+		final ExecutorService executor = Executors.newFixedThreadPool(m_threadCount);
+		try {
+			final List<Future<GameRecord>> games = new ArrayList<>(pairs.size() * m_gamesPerPairing);
+			for (final int[] pair : pairs) {
+				for (int game = 0; game < m_gamesPerPairing; game++) {
+					final int first = game % 2 == 0 ? pair[0] : pair[1];
+					final int second = game % 2 == 0 ? pair[1] : pair[0];
+					final long seed = seeds.nextLong();
+					games.add(executor.submit(() -> play(first, second, seed)));
+				}
+			}
+
+			final TournamentResult result = new TournamentResult(m_entrants);
+			for (final Future<GameRecord> game : games) {
+				result.add(game.get());
+			}
+			return result;
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException("Tournament game failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private GameRecord play(final int first, final int second, final long seed) throws IOException {
+		final GameResult result = Game.play(m_width, m_height, m_countToWin, false, seed, m_entrants.get(first), m_entrants.get(second));
+		if (m_log != null) m_log.write(result);
+		return new GameRecord(new int[]{first, second}, result);
+	}
+
+	/**
+	 * @param entrants index of the entrant of each turn order
+	 */
+	record GameRecord(int[] entrants, GameResult result) {
+	}
+}
@@ -0,0 +1,149 @@
+package org.minimax.tournament;
+
+import org.minimax.GameResult;
+import org.minimax.player.PlayerType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wins, draws and losses of the entrants of a {@link Tournament}, with their Elo ratings and move durations.
+ */
+public final class TournamentResult {
+
+	/**
+	 * Draws added between every pair of entrants who played, so that ratings stay finite when one always wins.
+	 */
+	private static final double PRIOR_DRAWS = 1.0d;
+	private static final int ELO_ITERATIONS = 1000;
+
+	private final List<PlayerType> m_entrants;
+	private final int[] m_wins;
+	private final int[] m_draws;
+	private final int[] m_losses;
+	/**
+	 * Points scored by each entrant against each other one, a draw being worth half a point.
+	 */
+	private final double[][] m_points;
+	private final int[][] m_games;
+	private final long[][] m_moveNanos;
+	private final int[] m_moveCounts;
+
+	TournamentResult(final List<PlayerType> entrants) {
+		final int count = entrants.size();
+		m_entrants = entrants;
+		m_wins = new int[count];
+		m_draws = new int[count];
+		m_losses = new int[count];
+		m_points = new double[count][count];
+		m_games = new int[count][count];
+		m_moveNanos = new long[count][64];
+		m_moveCounts = new int[count];
+	}
+
+	void add(final Tournament.GameRecord game) {
+		final int[] entrants = game.entrants();
+		final GameResult result = game.result();
+		for (int turn = 0; turn < entrants.length; turn++) {
+			final int entrant = entrants[turn];
+			final int opponent = entrants[1 - turn];
+			m_games[entrant][opponent]++;
+			if (result.isDraw()) {
+				m_draws[entrant]++;
+				m_points[entrant][opponent] += 0.5d;
+			} else if (result.getWinner() == turn) {
+				m_wins[entrant]++;
+				m_points[entrant][opponent] += 1.0d;
+			} else {
+				m_losses[entrant]++;
+			}
+		}
+
+		for (int ply = 0; ply < result.getPlyCount(); ply++) {
+			final int entrant = entrants[ply % entrants.length];
+			if (m_moveCounts[entrant] == m_moveNanos[entrant].length) {
+				m_moveNanos[entrant] = Arrays.copyOf(m_moveNanos[entrant], 2 * m_moveNanos[entrant].length);
+			}
+			m_moveNanos[entrant][m_moveCounts[entrant]++] = result.getMoveNanos(ply);
+		}
+	}
+
+	public List<PlayerType> getEntrants() {
+		return m_entrants;
+	}
+
+	public int getWins(final int entrant) {
+		return m_wins[entrant];
+	}
+
+	public int getDraws(final int entrant) {
+		return m_draws[entrant];
+	}
+
+	public int getLosses(final int entrant) {
+		return m_losses[entrant];
+	}
+
+	/**
+	 * Returns the Elo ratings of the entrants, averaging 0.<br>
+	 * They are the maximum likelihood estimate of the Bradley-Terry model fitted on all the games, draws counting as
+	 * half a win for both entrants, with {@link #PRIOR_DRAWS} extra draws between every pair who played.
+	 */
+	public double[] getEloRatings() {
+		final int count = m_entrants.size();
+		final double[] strengths = new double[count];
+		Arrays.fill(strengths, 1.0d);
+		for (int iteration = 0; iteration < ELO_ITERATIONS; iteration++) {
+			for (int i = 0; i < count; i++) {
+				double points = 0.0d;
+				double denominator = 0.0d;
+				for (int j = 0; j < count; j++) {
+					final int games = m_games[i][j];
+					if (i == j || games == 0) continue;
+					points += m_points[i][j] + PRIOR_DRAWS / 2;
+					denominator += (games + PRIOR_DRAWS) / (strengths[i] + strengths[j]);
+				}
+				if (denominator > 0) strengths[i] = points / denominator;
+			}
+		}
+
+		final double[] ratings = new double[count];
+		double mean = 0.0d;
+		for (int i = 0; i < count; i++) {
+			ratings[i] = 400.0d * Math.log10(strengths[i]);
+			mean += ratings[i] / count;
+		}
+		for (int i = 0; i < count; i++) {
+			ratings[i] -= mean;
+		}
+		return ratings;
+	}
+
+	/**
+	 * Returns the duration in nanoseconds below which the given fraction of the entrant's moves were played, or 0 if it
+	 * played no move.
+	 * @param percentile between 0 and 100
+	 */
+	public long getMoveNanosPercentile(final int entrant, final double percentile) {
+		final int count = m_moveCounts[entrant];
+		if (count == 0) return 0L;
+		final long[] sorted = Arrays.copyOf(m_moveNanos[entrant], count);
+		Arrays.sort(sorted);
+		final int rank = (int) Math.ceil(percentile / 100.0d * count);
+		return sorted[Math.max(0, Math.min(count, rank) - 1)];
+	}
+
+	@Override
+	public String toString() {
+		final double[] ratings = getEloRatings();
+		final StringBuilder sb = new StringBuilder(String.format("%-24s %6s %6s %6s %6s %7s %9s %9s %9s %9s%n",
+				"Player", "Games", "Wins", "Draws", "Losses", "Elo", "p50 (ms)", "p90 (ms)", "p99 (ms)", "max (ms)"));
+		for (int i = 0; i < m_entrants.size(); i++) {
+			sb.append(String.format("%-24s %6d %6d %6d %6d %+7.0f %9.2f %9.2f %9.2f %9.2f%n",
+					m_entrants.get(i), m_wins[i] + m_draws[i] + m_losses[i], m_wins[i], m_draws[i], m_losses[i], ratings[i],
+					getMoveNanosPercentile(i, 50) / 1e6, getMoveNanosPercentile(i, 90) / 1e6,
+					getMoveNanosPercentile(i, 99) / 1e6, getMoveNanosPercentile(i, 100) / 1e6));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,74 @@
+package org.minimax;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardCodecTest {
+	private static final int[][] GEOMETRIES = {
+			// width, height, count to win, player count
+			{7, 6, 4, 2},
+			{7, 6, 3, 3},
+			{9, 7, 4, 2},
+			{8, 7, 5, 4},
+			{5, 4, 2, 6},
+			{3, 3, 1, 1},
+	};
+
+	@Test
+	public void assertPositionsRoundTrip() {
+		final Random random = new Random(42);
+		for (final int[] geometry : GEOMETRIES) {
+			final List<Board> boards = new ArrayList<>();
+			int size = 0;
+			for (int game = 0; game < 50; game++) {
+				final Board board = Board.create(geometry[0], geometry[1], geometry[2], geometry[3]);
+				final int plies = random.nextInt(geometry[0] * geometry[1] + 1);
+				for (int ply = 0; ply < plies; ply++) {
+					final List<Integer> columns = board.getPlayableColumns();
+					board.play(Color.COLORS.get(ply % geometry[3]), columns.get(random.nextInt(columns.size())));
+				}
+				boards.add(board);
+				size += BoardCodec.getEncodedSize(board);
+				assertTrue(BoardCodec.getEncodedSize(board) < board.serialize().length());
+			}
+
+			final ByteBuffer buffer = ByteBuffer.allocate(size);
+			BoardCodec.encodeAll(boards, buffer);
+			assertEquals(size, buffer.position());
+			final List<Board> decoded = BoardCodec.decodeAll(buffer.flip(), geometry[0], geometry[1], geometry[2], geometry[3]);
+
+			assertEquals(boards.size(), decoded.size());
+			for (int i = 0; i < boards.size(); i++) {
+				assertEquals(boards.get(i).serialize(), decoded.get(i).serialize());
+				assertEquals(boards.get(i).getKey(), decoded.get(i).getKey());
+				assertEquals(boards.get(i).getPieceCount(), decoded.get(i).getPieceCount());
+			}
+		}
+	}
+
+	@Test
+	public void assertKeyDoesNotDependOnImplementation() {
+		final Board bitBoard = new BitBoard(7, 6, 4, 2);
+		final Board arrayBoard = new ArrayBoard(7, 6, 4, 2);
+		assertEquals(0x40810204081L, BoardCodec.toKey(bitBoard));
+
+		final int[] moves = {3, 3, 2, 4, 4, 2, 3, 1, 5, 5, 0, 6, 6, 6, 6, 6, 6};
+		for (int i = 0; i < moves.length; i++) {
+			bitBoard.play(Color.COLORS.get(i % 2), moves[i]);
+			arrayBoard.play(Color.COLORS.get(i % 2), moves[i]);
+			assertEquals(BoardCodec.toKey(arrayBoard), BoardCodec.toKey(bitBoard));
+		}
+
+		final Board decoded = new ArrayBoard(7, 6, 4, 2);
+		BoardCodec.fromKey(BoardCodec.toKey(bitBoard), decoded);
+		assertEquals(bitBoard.serialize(), decoded.serialize());
+		assertThrows(IllegalArgumentException.class, () -> BoardCodec.fromKey(0L, decoded));
+		assertThrows(IllegalArgumentException.class, () -> BoardCodec.toKey(Board.create(7, 6, 4, 3)));
+	}
+}
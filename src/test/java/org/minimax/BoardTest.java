@@ -0,0 +1,220 @@
+package org.minimax;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTest {
+	private static final int[][] GEOMETRIES = {
+			// width, height, count to win, player count
+			{7, 6, 4, 2},
+			{7, 6, 3, 3},
+			{4, 4, 4, 2},
+			{8, 7, 5, 4},
+			{5, 4, 2, 6},
+			{3, 3, 1, 2},
+			{7, 6, 7, 2},
+	};
+	private static final int[][] LARGE_GEOMETRIES = {
+			// Columns across word boundaries, alignments longer than a word shift, up to 64 columns
+			{9, 7, 4, 2},
+			{15, 15, 5, 2},
+			{20, 20, 6, 6},
+			{10, 12, 9, 3},
+			{64, 3, 3, 2},
+			{3, 40, 30, 2},
+	};
+
+	private interface BoardFactory {
+		Board create(final int width, final int height, final int countToWin, final int playerCount);
+	}
+
+	@Test
+	public void assertFactoryUsesBitBoardWhenPossible() {
+		assertInstanceOf(BitBoard.class, Board.create(7, 6, 4, 2));
+		assertInstanceOf(BitBoard.class, Board.create(8, 7, 4, 2));
+		assertInstanceOf(LargeBitBoard.class, Board.create(9, 7, 4, 2));
+		assertInstanceOf(LargeBitBoard.class, Board.create(64, 64, 4, 2));
+		assertInstanceOf(ArrayBoard.class, Board.create(65, 2, 4, 2));
+	}
+
+	@Test
+	public void assertBitBoardMatchesArrayBoard() {
+		assertMatchesArrayBoard(GEOMETRIES, 500, BitBoard::new);
+	}
+
+	@Test
+	public void assertLargeBitBoardMatchesArrayBoard() {
+		assertMatchesArrayBoard(GEOMETRIES, 100, LargeBitBoard::new);
+		assertMatchesArrayBoard(LARGE_GEOMETRIES, 20, LargeBitBoard::new);
+	}
+
+	private static void assertMatchesArrayBoard(final int[][] geometries, final int games, final BoardFactory factory) {
+		final Random random = new Random(42);
+		for (final int[] geometry : geometries) {
+			for (int game = 0; game < games; game++) {
+				final Board expected = new ArrayBoard(geometry[0], geometry[1], geometry[2], geometry[3]);
+				final Board actual = factory.create(geometry[0], geometry[1], geometry[2], geometry[3]);
+
+				int player = 0;
+				while (!expected.isFull()) {
+					final List<Integer> columns = expected.getPlayableColumns();
+					assertEquals(columns, actual.getPlayableColumns());
+
+					final int column = columns.get(random.nextInt(columns.size()));
+					final Color color = Color.COLORS.get(player);
+					assertTrue(expected.play(color, column));
+					assertTrue(actual.play(color, column));
+
+					assertEquals(expected.hasWon(column), actual.hasWon(column));
+					assertEquals(expected.getWinner(), actual.getWinner());
+					assertEquals(expected.serialize(), actual.serialize());
+					for (final Color threatColor : expected.getColors()) {
+						assertEquals(expected.getWinningColumns(threatColor), actual.getWinningColumns(threatColor));
+						assertEquals(expected.getColumnsGivingWin(threatColor), actual.getColumnsGivingWin(threatColor));
+					}
+
+					if (expected.hasWon(column)) {
+						assertEquals(Optional.of(color), actual.getWinner());
+						break;
+					}
+					player = (player + 1) % geometry[3];
+				}
+				final Board copy = actual.copy();
+				assertEquals(expected.serialize(), copy.serialize());
+				assertEquals(actual.getKey(), copy.getKey());
+			}
+		}
+	}
+
+	@Test
+	public void assertCancelRestoresBoard() {
+		final Board board = Board.create(7, 6, 4, 2);
+		board.play(Color.RED, 3);
+		final String before = board.serialize();
+
+		board.play(Color.YELLOW, 3);
+		assertTrue(board.cancel(3));
+		assertEquals(before, board.serialize());
+		assertEquals(Color.RED, board.getCell(3, 0));
+		assertEquals(Color.NONE, board.getCell(3, 1));
+		assertFalse(board.cancel(0));
+	}
+
+	@Test
+	public void assertUnserializeRestoresBoard() {
+		final Board board = Board.create(7, 6, 4, 2);
+		for (final int column : new int[]{3, 3, 4, 2, 4, 4, 5}) {
+			board.play(board.getPieceCount() % 2 == 0 ? Color.RED : Color.YELLOW, column);
+		}
+
+		final Board copy = Board.create(7, 6, 4, 2);
+		copy.unserialize(board.serialize());
+		assertEquals(board.serialize(), copy.serialize());
+		assertEquals(board.getPieceCount(), copy.getPieceCount());
+		for (int x = 0; x < board.getWidth(); x++) {
+			assertEquals(board.getColumnHeight(x), copy.getColumnHeight(x));
+		}
+	}
+
+	@Test
+	public void assertWinDetection() {
+		final Board board = Board.create(7, 6, 4, 2);
+		for (int x = 0; x < 3; x++) {
+			board.play(Color.RED, x);
+			assertFalse(board.hasWon(x));
+			board.play(Color.YELLOW, x);
+		}
+		board.play(Color.RED, 3);
+		assertTrue(board.hasWon(3));
+		assertEquals(Optional.of(Color.RED), board.getWinner());
+	}
+
+	@Test
+	public void assertThreatDetection() {
+		final Board board = Board.create(7, 6, 4, 2);
+		for (final int column : new int[]{2, 2, 3, 3, 4}) {
+			board.play(Color.COLORS.get(board.getPieceCount() % 2), column);
+		}
+		// Red wins at the bottom of both sides of its row, Yellow needs one more piece
+		assertEquals((1L << 1) | (1L << 5), board.getWinningColumns(Color.RED));
+		assertEquals(0L, board.getWinningColumns(Color.YELLOW));
+		assertEquals(0L, board.getColumnsGivingWin(Color.RED));
+
+		board.play(Color.YELLOW, 4);
+		assertEquals((1L << 1) | (1L << 5), board.getWinningColumns(Color.RED));
+		// Yellow now wins in the second row on both sides, once the bottom cells are filled
+		assertEquals((1L << 1) | (1L << 5), board.getColumnsGivingWin(Color.YELLOW));
+		assertEquals(0L, board.getWinningColumns(Color.YELLOW));
+
+		// Vertical threats cannot be blocked from below, and a full column gives nothing
+		final Board column = Board.create(7, 6, 4, 2);
+		for (int i = 0; i < 3; i++) {
+			column.play(Color.RED, 0);
+		}
+		assertEquals(1L, column.getWinningColumns(Color.RED));
+		assertEquals(0L, column.getColumnsGivingWin(Color.RED));
+	}
+
+	@Test
+	public void assertKeyIdentifiesPosition() {
+		final Board board = Board.create(7, 6, 4, 2);
+		assertEquals(0L, board.getKey());
+
+		board.play(Color.RED, 2);
+		board.play(Color.YELLOW, 3);
+		board.play(Color.RED, 4);
+		final long key = board.getKey();
+
+		final Board transposed = new ArrayBoard(7, 6, 4, 2);
+		transposed.play(Color.RED, 4);
+		transposed.play(Color.YELLOW, 3);
+		transposed.play(Color.RED, 2);
+		assertEquals(key, transposed.getKey());
+		assertEquals(key, board.copy().getKey());
+
+		board.play(Color.YELLOW, 3);
+		assertNotEquals(key, board.getKey());
+		board.cancel(3);
+		assertEquals(key, board.getKey());
+
+		final Board unserialized = Board.create(7, 6, 4, 2);
+		unserialized.unserialize(board.serialize());
+		assertEquals(key, unserialized.getKey());
+
+		board.cancel(4);
+		board.play(Color.YELLOW, 4);
+		assertNotEquals(key, board.getKey());
+	}
+
+	@Test
+	public void assertMirrorImagesShareCanonicalKey() {
+		final Board board = Board.create(7, 6, 4, 2);
+		final Board mirror = new ArrayBoard(7, 6, 4, 2);
+		final int[] columns = {0, 1, 1, 6, 2, 3};
+		for (int i = 0; i < columns.length; i++) {
+			board.play(Color.COLORS.get(i % 2), columns[i]);
+			mirror.play(Color.COLORS.get(i % 2), board.mirrorColumn(columns[i]));
+			assertEquals(board.getCanonicalKey(), mirror.getCanonicalKey());
+			assertNotEquals(board.getKey(), mirror.getKey());
+			assertNotEquals(board.isCanonicalMirrored(), mirror.isCanonicalMirrored());
+		}
+		assertEquals(board.getCanonicalKey(), board.copy().getCanonicalKey());
+
+		board.cancel(3);
+		mirror.cancel(3);
+		assertEquals(board.getCanonicalKey(), mirror.getCanonicalKey());
+
+		// A symmetric position is its own mirror image
+		final Board symmetric = Board.create(7, 6, 4, 2);
+		symmetric.play(Color.RED, 3);
+		assertEquals(symmetric.getKey(), symmetric.getCanonicalKey());
+		assertFalse(symmetric.isCanonicalMirrored());
+
+		assertEquals(0b1000011L, board.mirrorColumns(0b1100001L));
+	}
+}
@@ -0,0 +1,51 @@
+package org.minimax;
+
+import org.junit.jupiter.api.Test;
+import org.minimax.player.PlayerType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLogTest {
+
+	@Test
+	public void assertSameSeedReplaysSameGame() {
+		final GameResult first = Game.play(7, 6, 4, true, 12L, PlayerType.RANDOM, PlayerType.SIMPLE_MINIMAX_3);
+		final GameResult second = Game.play(7, 6, 4, true, 12L, PlayerType.RANDOM, PlayerType.SIMPLE_MINIMAX_3);
+
+		assertEquals(first.getPlayers(), second.getPlayers());
+		assertEquals(first.getWinner(), second.getWinner());
+		assertEquals(first.getPlyCount(), second.getPlyCount());
+		for (int ply = 0; ply < first.getPlyCount(); ply++) {
+			assertEquals(first.getMove(ply), second.getMove(ply));
+		}
+	}
+
+	@Test
+	public void assertGamesAreWrittenOnePerLine() throws IOException {
+		final GameResult result = new GameResult(5L, 4, 4, 3, List.of(PlayerType.RANDOM, PlayerType.HUMAN),
+				new int[]{0, 1, 0, 1, 0, 0, 0}, new long[]{10, 20, 30, 40, 50, 0, 0}, 5, 0);
+		final Path file = Files.createTempFile("games", ".jsonl");
+		try {
+			try (final GameLog log = new GameLog(file)) {
+				log.write(result);
+			}
+			try (final GameLog log = new GameLog(file)) {
+				log.write(new GameResult(6L, 1, 1, 2, List.of(PlayerType.RANDOM), new int[]{0}, new long[]{7}, 1, GameResult.DRAW));
+			}
+
+			final List<String> lines = Files.readAllLines(file);
+			assertEquals(2, lines.size());
+			assertEquals("{\"seed\":5,\"width\":4,\"height\":4,\"countToWin\":3,\"players\":[\"RANDOM\",\"HUMAN\"],\"winner\":0,"
+					+ "\"plies\":5,\"moves\":[0,1,0,1,0],\"moveNanos\":[10,20,30,40,50]}", lines.get(0));
+			assertEquals("{\"seed\":6,\"width\":1,\"height\":1,\"countToWin\":2,\"players\":[\"RANDOM\"],\"winner\":-1,"
+					+ "\"plies\":1,\"moves\":[0],\"moveNanos\":[7]}", lines.get(1));
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
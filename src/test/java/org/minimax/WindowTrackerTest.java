@@ -0,0 +1,64 @@
+package org.minimax;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WindowTrackerTest {
+
+	@Test
+	public void assertIncrementalCountsMatchScan() {
+		final Random random = new Random(7);
+		for (final int[] geometry : new int[][]{{7, 6, 4, 2}, {5, 4, 3, 3}, {9, 7, 5, 2}}) {
+			final Board board = Board.create(geometry[0], geometry[1], geometry[2], geometry[3]);
+			final WindowTracker windows = board.getWindows();
+			int player = 0;
+			while (!board.isFull()) {
+				final List<Integer> columns = board.getPlayableColumns();
+				final int column = columns.get(random.nextInt(columns.size()));
+				board.play(Color.COLORS.get(player), column);
+				if (random.nextInt(4) == 0) {
+					board.cancel(column);
+				} else {
+					player = (player + 1) % geometry[3];
+				}
+
+				final Board scanned = Board.create(geometry[0], geometry[1], geometry[2], geometry[3]);
+				scanned.unserialize(board.serialize());
+				assertSameCounts(board, scanned.getWindows(), windows);
+				assertSameCounts(board, windows, board.copy().getWindows());
+			}
+		}
+	}
+
+	@Test
+	public void assertThreatIsFound() {
+		final Board board = Board.create(7, 6, 4, 2);
+		board.play(Color.RED, 0);
+		board.play(Color.RED, 1);
+		board.play(Color.RED, 2);
+		final WindowTracker windows = board.getWindows();
+		assertEquals(1, windows.getThreatCount(Color.RED, 0));
+		assertEquals(0, windows.getThreatCount(Color.RED, 1));
+		assertEquals(1, windows.getOpenWindowCount(Color.RED, 3));
+
+		board.play(Color.YELLOW, 3);
+		assertEquals(0, windows.getThreatCount(Color.RED, 0));
+		assertEquals(0, windows.getOpenWindowCount(Color.RED, 3));
+		assertEquals(3 + 4 + 5, windows.getCenterControl(Color.RED));
+	}
+
+	private static void assertSameCounts(final Board board, final WindowTracker expected, final WindowTracker actual) {
+		for (final Color color : board.getColors()) {
+			for (int pieces = 0; pieces <= board.getCountToWin(); pieces++) {
+				assertEquals(expected.getOpenWindowCount(color, pieces), actual.getOpenWindowCount(color, pieces));
+			}
+			assertEquals(expected.getThreatCount(color, 0), actual.getThreatCount(color, 0));
+			assertEquals(expected.getThreatCount(color, 1), actual.getThreatCount(color, 1));
+			assertEquals(expected.getCenterControl(color), actual.getCenterControl(color));
+		}
+	}
+}
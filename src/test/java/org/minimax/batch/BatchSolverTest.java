@@ -0,0 +1,49 @@
+package org.minimax.batch;
+
+import org.junit.jupiter.api.Test;
+import org.minimax.Board;
+import org.minimax.Color;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSolverTest {
+
+	@Test
+	public void assertPositionsAreSolvedInOrder() throws IOException, InterruptedException {
+		final Board board = Board.create(7, 6, 4, 2);
+		for (int i = 0; i < 6; i++) {
+			board.play(Color.COLORS.get(i % 2), i % 2);
+		}
+		final String input = "# Comments and empty lines are skipped\n"
+				+ "121212 ignored\n"
+				+ "\n"
+				+ "47521424421677242124316516\n"
+				+ board.serialize() + '\n';
+
+		final StringWriter output = new StringWriter();
+		final BatchSummary summary = new BatchSolver(7, 6, 4, 6, 0, 3, 1)
+				.run(new BufferedReader(new StringReader(input)), output);
+
+		final String[] lines = output.toString().split("\n");
+		assertEquals(3, lines.length);
+		assertEquals(3, summary.getPositionCount());
+		// Red wins at once in the first column
+		assertTrue(lines[0].startsWith("{\"position\":\"121212\",\"score\":0,\"turnsBeforeEnd\":1,\"bestMoves\":[0],"));
+		assertTrue(lines[1].startsWith("{\"position\":\"47521424421677242124316516\",\"score\":0,\"turnsBeforeEnd\":-4,\"bestMoves\":[4],"));
+		assertTrue(lines[2].startsWith("{\"position\":\"" + board.serialize() + "\",\"score\":0,\"turnsBeforeEnd\":1,\"bestMoves\":[0],"));
+		assertTrue(summary.getNodeCount() > 0);
+	}
+
+	@Test
+	public void assertInvalidPositionsAreRejected() {
+		final BatchSolver solver = new BatchSolver(7, 6, 4, 4, 0, 1, 1);
+		for (final String input : new String[]{"1111111", "1212121", "128"}) {
+			assertThrows(IllegalStateException.class, () -> solver.run(new BufferedReader(new StringReader(input)), new StringWriter()));
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package org.minimax.book;
+
+import org.minimax.Board;
+import org.minimax.Color;
+import org.minimax.player.SimpleMinimaxPlayer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+
+	@Test
+	public void assertBookMatchesSearch() throws IOException {
+		final Path path = Files.createTempFile("opening-book", ".bin");
+		try {
+			final int size = new OpeningBookBuilder(5, 4, 3, 3, 8, 4, 1).build(path);
+			final OpeningBook book = OpeningBook.open(path);
+			assertEquals(size, book.size());
+			assertEquals(3, book.getMaxPly());
+
+			final List<Color> colors = List.of(Color.RED, Color.YELLOW);
+			final SimpleMinimaxPlayer red = new SimpleMinimaxPlayer(Color.RED, colors, 8, 4);
+			final SimpleMinimaxPlayer yellow = new SimpleMinimaxPlayer(Color.YELLOW, colors, 8, 4);
+
+			final Board board = Board.create(5, 4, 3, 2);
+			assertEquals(red.getBestMoves(board.copy()), book.getBestMoves(board));
+			board.play(Color.RED, 2);
+			assertEquals(yellow.getBestMoves(board.copy()), book.getBestMoves(board));
+			board.play(Color.YELLOW, 0);
+			board.play(Color.RED, 4);
+			assertEquals(yellow.getBestMoves(board.copy()), book.getBestMoves(board));
+			assertNotEquals(OpeningBook.MISS, book.getBestMoves(board));
+
+			final Board mirror = Board.create(5, 4, 3, 2);
+			mirror.play(Color.RED, 2);
+			mirror.play(Color.YELLOW, 4);
+			mirror.play(Color.RED, 0);
+			assertEquals(yellow.getBestMoves(mirror.copy()), book.getBestMoves(mirror));
+			assertEquals(board.mirrorColumns(book.getBestMoves(board)), book.getBestMoves(mirror));
+
+			board.play(Color.YELLOW, 1);
+			assertFalse(book.covers(board));
+			assertEquals(OpeningBook.MISS, book.getBestMoves(board));
+			assertEquals(OpeningBook.MISS, book.getBestMoves(Board.create(7, 6, 4, 2)));
+
+			red.setOpeningBook(book);
+			assertEquals(book.getBestMoves(Board.create(5, 4, 3, 2)), red.getBestMoves(Board.create(5, 4, 3, 2)));
+		} finally {
+			Files.delete(path);
+		}
+	}
+}
@@ -1,44 +1,317 @@
 package org.minimax.player;
 
 import org.junit.jupiter.api.Test;
+import org.minimax.Board;
+import org.minimax.Color;
+import org.minimax.Constants;
+import org.minimax.RandomHelper;
+import org.minimax.search.PackedScore;
+import org.minimax.search.SearchStatistics;
 
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
 import java.util.List;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class MinimaxPlayerTest {
+	/**
+	 * Pairs of (value, turns before end), from the worst score to the best one.
+	 */
+	private static final int[][] SCORES = {
+			{45, -1},
+			{23, -2},
+			{12, -3},
+			{89, -4},
+			{-23, 0},
+			{0, 0},
+			{76, 0},
+			{32, 4},
+			{59, 3},
+			{73, 2},
+			{12, 1}
+	};
+
 	@Test
 	public void testScore() {
-		final List<MinimaxPlayer.Score> scores = List.of(
-				new MinimaxPlayer.Score(45, -1),
-				new MinimaxPlayer.Score(23, -2),
-				new MinimaxPlayer.Score(12, -3),
-				new MinimaxPlayer.Score(89, -4),
-				new MinimaxPlayer.Score(-23, 0),
-				new MinimaxPlayer.Score(0, 0),
-				new MinimaxPlayer.Score(76, 0),
-				new MinimaxPlayer.Score(32, 4),
-				new MinimaxPlayer.Score(59, 3),
-				new MinimaxPlayer.Score(73, 2),
-				new MinimaxPlayer.Score(12, 1)
-		);
-
-		for (int i = 0; i < scores.size(); i++) {
-			for (int j = 0; j < scores.size(); j++) {
-				if (i > j) {
-					assertTrue(scores.get(i).greaterThan(scores.get(j)));
-					assertNotEquals(scores.get(i), scores.get(j));
-					assertFalse(scores.get(j).greaterThan(scores.get(i)));
-				} else if (i < j) {
-					assertFalse(scores.get(i).greaterThan(scores.get(j)));
-					assertNotEquals(scores.get(i), scores.get(j));
-					assertTrue(scores.get(j).greaterThan(scores.get(i)));
-				} else {
-					assertFalse(scores.get(i).greaterThan(scores.get(j)));
-					assertEquals(scores.get(i), scores.get(j));
-					assertFalse(scores.get(j).greaterThan(scores.get(i)));
-				}
+		for (int i = 0; i < SCORES.length; i++) {
+			for (int j = 0; j < SCORES.length; j++) {
+				final int score = PackedScore.of(SCORES[i][0], SCORES[i][1]);
+				final int other = PackedScore.of(SCORES[j][0], SCORES[j][1]);
+				assertEquals(Integer.signum(i - j), Integer.signum(Integer.compare(score, other)));
+			}
+		}
+	}
+
+	@Test
+	public void testPackedScore() {
+		for (final int[] pair : SCORES) {
+			final int score = PackedScore.of(pair[0], pair[1]);
+			assertEquals(pair[1], PackedScore.turnsBeforeEnd(score));
+			// The value of won or lost positions is not kept
+			assertEquals(pair[1] == 0 ? pair[0] : 0, PackedScore.value(score));
+			assertEquals(PackedScore.of(-pair[0], -pair[1]), -score);
+		}
+	}
+
+	@Test
+	public void testSearchDoesNotAllocate() {
+		final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		final List<Color> players = List.of(Color.RED, Color.YELLOW);
+		final Board board = Board.create(7, 6, 4, 2);
+		final MinimaxPlayer player = new SimpleMinimaxPlayer(Color.RED, players, 12);
+		player.init();
+		// The first search allocates the table and the buffers
+		player.play(board.copy());
+
+		final long before = threads.getCurrentThreadAllocatedBytes();
+		player.play(board.copy());
+		final long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+		player.onGameOver();
+		// The root allocates a few arrays by depth, a single object by node would take many times the node count
+		assertTrue(player.getLastNodeCount() > 100_000);
+		assertTrue(allocated < player.getLastNodeCount(), allocated + " bytes for " + player.getLastNodeCount() + " nodes");
+	}
+
+	@Test
+	public void testParallelSearchMatchesSerial() {
+		final List<Color> players = List.of(Color.RED, Color.YELLOW);
+		final Board board = Board.create(7, 6, 4, 2);
+		for (final int column : new int[]{3, 3, 2, 4, 1}) {
+			final Color color = board.getPieceCount() % 2 == 0 ? Color.RED : Color.YELLOW;
+
+			final MinimaxPlayer serial = new SimpleMinimaxPlayer(color, players, 8, 4, 1);
+			final MinimaxPlayer parallel = new SimpleMinimaxPlayer(color, players, 8, 4, 4);
+			for (int seed = 0; seed < 3; seed++) {
+				serial.setRandom(new SplittableRandom(seed));
+				final int expected = serial.play(board.copy());
+				parallel.setRandom(new SplittableRandom(seed));
+				assertEquals(expected, parallel.play(board.copy()));
 			}
+
+			board.play(color, column);
+		}
+	}
+
+	@Test
+	public void testPrincipalVariationSearchMatchesAlphaBeta() {
+		final List<Color> players = List.of(Color.RED, Color.YELLOW);
+		final Board board = Board.create(7, 6, 4, 2);
+		for (final int column : new int[]{3, 3, 2, 4, 1}) {
+			final Color color = board.getPieceCount() % 2 == 0 ? Color.RED : Color.YELLOW;
+
+			final MinimaxPlayer alphaBeta = new SimpleMinimaxPlayer(color, players, 8, 4, 1);
+			final MinimaxPlayer pvs = new SimpleMinimaxPlayer(color, players, 8, 4, 1);
+			pvs.setPrincipalVariationSearch(true);
+			final long bestMoves = pvs.getBestMoves(board.copy());
+			assertEquals(alphaBeta.getBestMoves(board.copy()), bestMoves);
+			assertEquals(alphaBeta.getLastScore(), pvs.getLastScore());
+
+			final int[] line = pvs.getLastPrincipalVariation();
+			assertTrue(line.length > 0 && line.length <= 8);
+			assertTrue((bestMoves & (1L << line[0])) != 0);
+			final Board replay = board.copy();
+			for (int ply = 0; ply < line.length; ply++) {
+				assertTrue(replay.play(players.get((board.getPieceCount() + ply) % 2), line[ply]));
+			}
+
+			board.play(color, column);
+		}
+	}
+
+	@Test
+	public void testPonderingKeepsTheMoves() throws InterruptedException {
+		final List<Color> players = List.of(Color.RED, Color.YELLOW);
+		final Board board = Board.create(7, 6, 4, 2);
+		// Searched until the end, so that the moves do not depend on what the pondering left in the cache
+		final String moves = "453452677461532654451134";
+		for (int i = 0; i < moves.length(); i++) {
+			board.play(players.get(i % 2), moves.charAt(i) - '1');
+		}
+		final MinimaxPlayer pondering = new SimpleMinimaxPlayer(Color.RED, players, 18);
+		final MinimaxPlayer reference = new SimpleMinimaxPlayer(Color.RED, players, 18);
+		final MinimaxPlayer opponent = new SimpleMinimaxPlayer(Color.YELLOW, players, 18);
+		pondering.setPondering(true);
+		pondering.setRandom(new SplittableRandom(1));
+		reference.setRandom(new SplittableRandom(1));
+		opponent.setRandom(new SplittableRandom(2));
+
+		int moveCount = 0;
+		while (true) {
+			final int column = pondering.play(board.copy());
+			assertEquals(reference.play(board.copy()), column);
+			// Every move after the first one was searched while the opponent was thinking
+			if (moveCount++ > 0) assertEquals(0, pondering.getLastNodeCount());
+			board.play(Color.RED, column);
+			if (board.hasWon(column) || board.isFull()) break;
+
+			// Lets the pondering search all the replies, so that the next move always comes from its results
+			pondering.awaitPondering();
+			final int reply = opponent.play(board.copy());
+			board.play(Color.YELLOW, reply);
+			if (board.hasWon(reply) || board.isFull()) break;
+		}
+		pondering.onGameOver();
+		assertTrue(moveCount > 1);
+	}
+
+	@Test
+	public void testGivenStreamLeavesTheGlobalOneUntouched() {
+		final List<Color> players = List.of(Color.RED, Color.YELLOW);
+		RandomHelper.setSeed(42);
+		final MinimaxPlayer player = new SimpleMinimaxPlayer(Color.RED, players, 1);
+		player.setRandom(new SplittableRandom(1));
+		player.init();
+		// Every column ties at depth 1, so the move is drawn at random
+		player.play(Board.create(7, 6, 4, 2));
+		player.onGameOver();
+		assertEquals(new SplittableRandom(42).split().nextLong(), RandomHelper.split().nextLong());
+	}
+
+	@Test
+	public void testTinyBudgetStillCompletesTheFirstDepth() {
+		final List<Color> players = List.of(Color.RED, Color.YELLOW);
+		final Board board = Board.create(7, 6, 4, 2);
+		board.play(Color.RED, 3);
+		final MinimaxPlayer player = timedPlayer(Color.YELLOW, players, 42, 1);
+		final long bestMoves = player.getBestMoves(board.copy());
+		assertNotEquals(0L, bestMoves);
+		assertTrue(player.getLastDepth() >= 1);
+		for (int column = 0; column < 7; column++) {
+			if ((bestMoves & (1L << column)) != 0) assertTrue(board.canPlay(column));
+		}
+	}
+
+	@Test
+	public void testLargeBudgetMatchesFixedDepth() {
+		final List<Color> players = List.of(Color.RED, Color.YELLOW);
+		final Board board = Board.create(7, 6, 4, 2);
+		for (final int column : new int[]{3, 3, 2, 4, 1}) {
+			final Color color = board.getPieceCount() % 2 == 0 ? Color.RED : Color.YELLOW;
+			final MinimaxPlayer timed = timedPlayer(color, players, 7, 60_000);
+			final MinimaxPlayer fixed = new SimpleMinimaxPlayer(color, players, 7);
+			assertEquals(fixed.getBestMoves(board.copy()), timed.getBestMoves(board.copy()));
+			assertEquals(fixed.getLastScore(), timed.getLastScore());
+			assertEquals(7, timed.getLastDepth());
+			board.play(color, column);
+		}
+	}
+
+	@Test
+	public void testAbortedDepthIsDropped() {
+		final List<Color> players = List.of(Color.RED, Color.YELLOW);
+		final Board board = Board.create(7, 6, 4, 2);
+		board.play(Color.RED, 3);
+		boolean aborted = false;
+		for (int budget = 1; budget <= 64 && !aborted; budget *= 2) {
+			final MinimaxPlayer timed = timedPlayer(Color.YELLOW, players, 42, budget);
+			timed.setStatisticsEnabled(true);
+			final long bestMoves = timed.getBestMoves(board.copy());
+			final SearchStatistics statistics = timed.getLastStatistics();
+			long completedNodes = 0;
+			for (int i = 0; i < statistics.getCompletedDepthCount(); i++) {
+				completedNodes += statistics.getDepthNodeCount(i);
+			}
+			// Nodes past the completed depths were searched by an iteration which did not complete
+			aborted = statistics.getNodeCount() > completedNodes;
+
+			final int depth = timed.getLastDepth();
+			assertEquals(statistics.getCompletedDepthCount(), depth);
+			final MinimaxPlayer fixed = new SimpleMinimaxPlayer(Color.YELLOW, players, depth);
+			assertEquals(fixed.getBestMoves(board.copy()), bestMoves);
+			assertEquals(fixed.getLastScore(), timed.getLastScore());
+		}
+		assertTrue(aborted);
+	}
+
+	@Test
+	public void testIterativeDeepeningStopsAtTheEnd() {
+		final List<Color> players = List.of(Color.RED, Color.YELLOW);
+		// Red wins at once, which the first depth proves
+		final Board win = Board.create(7, 6, 4, 2);
+		for (final int column : new int[]{2, 2, 3, 3, 4, 4}) {
+			win.play(players.get(win.getPieceCount() % 2), column);
+		}
+		final MinimaxPlayer player = timedPlayer(Color.RED, players, 42, 60_000);
+		assertEquals((1L << 1) | (1L << 5), player.getBestMoves(win));
+		assertEquals(1, player.getLastDepth());
+
+		// Only two cells are left, so searching deeper gives nothing
+		final Board end = Board.create(2, 2, 3, 2);
+		end.play(Color.RED, 0);
+		end.play(Color.YELLOW, 1);
+		final MinimaxPlayer endPlayer = timedPlayer(Color.RED, players, 42, 60_000);
+		endPlayer.setStatisticsEnabled(true);
+		endPlayer.getBestMoves(end);
+		assertEquals(2, endPlayer.getLastDepth());
+		assertEquals(2, endPlayer.getLastStatistics().getCompletedDepthCount());
+	}
+
+	/**
+	 * Returns a player searching with iterative deepening up to the given depth, until the given time has elapsed.
+	 */
+	private static MinimaxPlayer timedPlayer(final Color color, final List<Color> players, final int maxDepth,
+											 final long timeBudgetMillis) {
+		return new SimpleMinimaxPlayer(color, players, maxDepth) {
+			@Override
+			protected long getTimeBudgetMillis() {
+				return timeBudgetMillis;
+			}
+		};
+	}
+
+	@Test
+	public void testShallowPlayerKeepsASmallCache() {
+		// Every move resets the table, which must not cost more than a shallow search
+		final List<Color> players = List.of(Color.RED, Color.YELLOW);
+		final MinimaxPlayer shallow = new SimpleMinimaxPlayer(Color.RED, players, 3);
+		final MinimaxPlayer deep = new SimpleMinimaxPlayer(Color.RED, players, 12);
+		assertEquals(0, shallow.getCacheSizeInBytes());
+
+		final Board board = Board.create(7, 6, 4, 2);
+		shallow.getBestMoves(board.copy());
+		deep.getBestMoves(board.copy());
+		assertEquals(1 << 20, shallow.getCacheSizeInBytes());
+		assertEquals((long) Constants.DEFAULT_CACHE_SIZE_MB << 20, deep.getCacheSizeInBytes());
+	}
+
+	@Test
+	public void testStatisticsCountTheSearch() {
+		final List<Color> players = List.of(Color.RED, Color.YELLOW);
+		final Board board = Board.create(7, 6, 4, 2);
+		board.play(Color.RED, 3);
+		for (final int threadCount : new int[]{1, 3}) {
+			final MinimaxPlayer player = new SimpleMinimaxPlayer(Color.YELLOW, players, 7, 4, threadCount);
+			player.getBestMoves(board.copy());
+			assertNull(player.getLastStatistics());
+
+			player.setStatisticsEnabled(true);
+			player.getBestMoves(board.copy());
+			final SearchStatistics statistics = player.getLastStatistics();
+			assertEquals(player.getLastNodeCount(), statistics.getNodeCount());
+			assertEquals(0, statistics.getNodeCount(0));
+			// Threads without a column of their own search the columns of the others again
+			if (threadCount == 1) assertEquals(7, statistics.getNodeCount(1));
+			else assertTrue(statistics.getNodeCount(1) >= 7 && statistics.getNodeCount(1) <= 7 * threadCount);
+			assertTrue(statistics.getNodeCount(7) > 0);
+			assertEquals(0, statistics.getNodeCount(8));
+			assertTrue(statistics.getCacheHits() <= statistics.getCacheProbes());
+			assertTrue(statistics.getCacheCutoffs() <= statistics.getCacheHits());
+
+			long cutoffs = 0;
+			for (int ply = 0; ply < statistics.getPlyCount(); ply++) {
+				assertTrue(statistics.getFirstMoveCutoffCount(ply) <= statistics.getCutoffCount(ply));
+				cutoffs += statistics.getCutoffCount(ply);
+			}
+			assertTrue(cutoffs > 0);
+
+			assertEquals(1, statistics.getCompletedDepthCount());
+			assertEquals(7, statistics.getCompletedDepth(0));
+			assertEquals(statistics.getNodeCount(), statistics.getDepthNodeCount(0));
+			assertEquals(Math.pow(statistics.getNodeCount(), 1.0d / 7), statistics.getEffectiveBranchingFactor(), 1e-9);
+			assertEquals(statistics.getNodeCount(), statistics.toMetrics().get("nodes"));
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package org.minimax.player;
+
+import org.junit.jupiter.api.Test;
+import org.minimax.Board;
+import org.minimax.Color;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiPlayerSearchTest {
+	private static final List<Color> PLAYERS = List.of(Color.RED, Color.YELLOW, Color.GREEN);
+
+	@Test
+	public void assertWinningMoveIsPlayed() {
+		final Board board = Board.create(7, 6, 4, 3);
+		playAll(board,
+				Color.RED, 0, Color.YELLOW, 0, Color.GREEN, 6,
+				Color.RED, 1, Color.YELLOW, 1, Color.GREEN, 6,
+				Color.RED, 2, Color.YELLOW, 5, Color.GREEN, 5);
+
+		assertEquals(1L << 3, new SimpleMinimaxPlayer(Color.RED, PLAYERS, 4, 4).getBestMoves(board.copy()));
+		assertEquals(1L << 3, new ThreatMinimaxPlayer(Color.RED, PLAYERS, 4).getBestMoves(board.copy()));
+		assertEquals(1L << 3, new ThreatMaxnPlayer(Color.RED, PLAYERS, 4).getBestMoves(board.copy()));
+	}
+
+	@Test
+	public void assertNextPlayerWinIsBlocked() {
+		final Board board = Board.create(7, 6, 4, 3);
+		playAll(board,
+				Color.YELLOW, 0, Color.YELLOW, 1, Color.YELLOW, 2,
+				Color.RED, 0, Color.RED, 2, Color.RED, 6,
+				Color.GREEN, 6, Color.GREEN, 6, Color.GREEN, 5);
+
+		assertEquals(1L << 3, new SimpleMinimaxPlayer(Color.RED, PLAYERS, 2, 4).getBestMoves(board.copy()));
+		assertEquals(1L << 3, new ThreatMinimaxPlayer(Color.RED, PLAYERS, 5).getBestMoves(board.copy()));
+		assertEquals(1L << 3, new ThreatMaxnPlayer(Color.RED, PLAYERS, 2).getBestMoves(board.copy()));
+		assertEquals(1L << 3, new ThreatMaxnPlayer(Color.RED, PLAYERS, 5).getBestMoves(board.copy()));
+	}
+
+	@Test
+	public void assertMaxnPlaysFullGames() {
+		final Board board = Board.create(7, 6, 4, 4);
+		final List<Color> players = board.getColors();
+		final Player[] searchers = new Player[players.size()];
+		for (int i = 0; i < searchers.length; i++) {
+			searchers[i] = i % 2 == 0 ? new ThreatMaxnPlayer(players.get(i), players, 4) : new ThreatMinimaxPlayer(players.get(i), players, 4);
+		}
+
+		for (int turn = 0; !board.isFull(); turn = (turn + 1) % searchers.length) {
+			final int column = searchers[turn].play(board.copy());
+			assertTrue(board.play(players.get(turn), column));
+			if (board.hasWon(column)) break;
+		}
+	}
+
+	private static void playAll(final Board board, final Object... moves) {
+		for (int i = 0; i < moves.length; i += 2) {
+			assertTrue(board.play((Color) moves[i], (Integer) moves[i + 1]));
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package org.minimax.player;
+
+import org.junit.jupiter.api.Test;
+import org.minimax.Board;
+import org.minimax.Color;
+import org.minimax.search.PackedScore;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverPlayerTest {
+	private static final List<Color> PLAYERS = List.of(Color.RED, Color.YELLOW);
+
+	private static Board play(final Board board, final String moves) {
+		for (int i = 0; i < moves.length(); i++) {
+			board.play(PLAYERS.get(board.getPieceCount() % 2), moves.charAt(i) - '1');
+		}
+		return board;
+	}
+
+	@Test
+	public void testSolveForcedWin() {
+		final Board board = play(Board.create(7, 6, 4, 2), "666331116375453716");
+		for (final SolverPlayer.Mode mode : SolverPlayer.Mode.values()) {
+			final SolverPlayer.Solution solution = new SolverPlayer(Color.RED, PLAYERS, mode).solve(board.copy());
+			assertEquals(SolverPlayer.Outcome.WIN, solution.outcome());
+			assertEquals(1L << 3, solution.bestMoves());
+			assertTrue(solution.forced());
+			assertEquals(mode == SolverPlayer.Mode.STRONG ? 7 : 0, solution.turnsBeforeEnd());
+		}
+	}
+
+	@Test
+	public void testImmediateWinsAndLosses() {
+		// Red has three in a row at the bottom, open on both sides, and Yellow three above it
+		final Board board = play(Board.create(7, 6, 4, 2), "334455");
+		assertEquals((1L << 1) | (1L << 5), board.getWinningColumns(Color.RED));
+		final SolverPlayer.Solution win = new SolverPlayer(Color.RED, PLAYERS, SolverPlayer.Mode.WEAK).solve(board);
+		assertEquals(new SolverPlayer.Solution(SolverPlayer.Outcome.WIN, 1, (1L << 1) | (1L << 5), false, 0), win);
+
+		board.play(Color.RED, 6);
+		assertEquals(0L, SolverPlayer.getNonLosingMoves(board, Color.RED));
+		final SolverPlayer.Solution loss = new SolverPlayer(Color.YELLOW, PLAYERS, SolverPlayer.Mode.STRONG).solve(board);
+		assertEquals(SolverPlayer.Outcome.LOSS, loss.outcome());
+		assertEquals(-2, loss.turnsBeforeEnd());
+	}
+
+	@Test
+	public void testSolversMatchFullDepthMinimax() {
+		final SplittableRandom random = new SplittableRandom(3);
+		for (int game = 0; game < 10; game++) {
+			final Board board = Board.create(5, 4, 4, 2);
+			// Winning moves are taken back and the same player plays again, so that the game goes on
+			while (board.getPieceCount() < 6) {
+				final List<Integer> columns = board.getPlayableColumns();
+				final int column = columns.get(random.nextInt(columns.size()));
+				board.play(PLAYERS.get(board.getPieceCount() % 2), column);
+				if (board.hasWon(column)) board.cancel(column);
+			}
+			final Color color = PLAYERS.get(board.getPieceCount() % 2);
+
+			final MinimaxPlayer minimax = new SimpleMinimaxPlayer(color, PLAYERS, 20);
+			final long bestMoves = minimax.getBestMoves(board.copy());
+			final int score = minimax.getLastScore();
+			final SolverPlayer.Solution strong = new SolverPlayer(color, PLAYERS, SolverPlayer.Mode.STRONG).solve(board.copy());
+			final SolverPlayer.Solution weak = new SolverPlayer(color, PLAYERS, SolverPlayer.Mode.WEAK).solve(board.copy());
+
+			assertEquals(PackedScore.turnsBeforeEnd(score), strong.turnsBeforeEnd());
+			assertEquals(Integer.signum(score), strong.outcome() == SolverPlayer.Outcome.WIN ? 1 : strong.outcome() == SolverPlayer.Outcome.LOSS ? -1 : 0);
+			assertEquals(strong.outcome(), weak.outcome());
+			if (strong.turnsBeforeEnd() != -2) {
+				// Moves losing at once are never searched, so they are only dropped from the best ones of a quick loss
+				assertEquals(bestMoves, strong.bestMoves());
+			}
+			assertEquals(strong.bestMoves(), strong.bestMoves() & weak.bestMoves());
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package org.minimax.search;
+
+import org.junit.jupiter.api.Test;
+import org.minimax.Board;
+import org.minimax.Color;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveOrderingTest {
+	private static final int NO_MOVE = TranspositionTable.NO_MOVE;
+
+	private static MoveOrdering create(final Board board, final Set<MoveOrdering.Heuristic> heuristics) {
+		final MoveOrdering ordering = new MoveOrdering(heuristics);
+		ordering.newSearch(board);
+		return ordering;
+	}
+
+	private static int[] order(final MoveOrdering ordering, final Board board, final int ply, final Color color, final int cachedMove) {
+		final int[] moves = new int[ordering.order(board, ply, color, cachedMove)];
+		for (int i = 0; i < moves.length; i++) {
+			moves[i] = ordering.getMove(ply, i);
+		}
+		return moves;
+	}
+
+	/**
+	 * Orders the ply, then records a cutoff on the given column.
+	 */
+	private static void cutoff(final MoveOrdering ordering, final Board board, final int ply, final Color color,
+							   final int column, final int remainingDepth) {
+		final int[] moves = order(ordering, board, ply, color, NO_MOVE);
+		for (int i = 0; i < moves.length; i++) {
+			if (moves[i] == column) ordering.onCutoff(ply, color, i, remainingDepth);
+		}
+	}
+
+	@Test
+	public void assertColumnsStayInOrderWithoutHeuristic() {
+		final Board board = Board.create(7, 6, 4, 2);
+		final MoveOrdering ordering = create(board, EnumSet.noneOf(MoveOrdering.Heuristic.class));
+		assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6}, order(ordering, board, 0, Color.RED, 5));
+
+		cutoff(ordering, board, 0, Color.RED, 4, 5);
+		assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6}, order(ordering, board, 0, Color.RED, NO_MOVE));
+	}
+
+	@Test
+	public void assertFullColumnsAreSkipped() {
+		final Board board = Board.create(7, 2, 4, 2);
+		board.play(Color.RED, 3);
+		board.play(Color.YELLOW, 3);
+		final MoveOrdering ordering = create(board, EnumSet.of(MoveOrdering.Heuristic.CENTER_FIRST));
+		assertArrayEquals(new int[]{2, 4, 1, 5, 0, 6}, order(ordering, board, 0, Color.RED, 3));
+	}
+
+	@Test
+	public void assertCenterColumnsComeFirst() {
+		final Board board = Board.create(7, 6, 4, 2);
+		final MoveOrdering ordering = create(board, EnumSet.of(MoveOrdering.Heuristic.CENTER_FIRST));
+		assertArrayEquals(new int[]{3, 2, 4, 1, 5, 0, 6}, order(ordering, board, 0, Color.RED, NO_MOVE));
+	}
+
+	@Test
+	public void assertCachedMoveComesFirst() {
+		final Board board = Board.create(7, 6, 4, 2);
+		final MoveOrdering ordering = create(board, EnumSet.of(MoveOrdering.Heuristic.CACHED_MOVE));
+		assertArrayEquals(new int[]{5, 0, 1, 2, 3, 4, 6}, order(ordering, board, 0, Color.RED, 5));
+		assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6}, order(ordering, board, 0, Color.RED, NO_MOVE));
+	}
+
+	@Test
+	public void assertKillerMovesComeFirst() {
+		final Board board = Board.create(7, 6, 4, 2);
+		final MoveOrdering ordering = create(board, EnumSet.of(MoveOrdering.Heuristic.KILLER_MOVES));
+		cutoff(ordering, board, 2, Color.RED, 5, 1);
+		cutoff(ordering, board, 2, Color.RED, 2, 1);
+		// The latest killer first, and only at the ply of the cutoffs
+		assertArrayEquals(new int[]{2, 5, 0, 1, 3, 4, 6}, order(ordering, board, 2, Color.RED, NO_MOVE));
+		assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6}, order(ordering, board, 1, Color.RED, NO_MOVE));
+
+		// A killer causing a cutoff again is not duplicated, a third one evicts the oldest
+		cutoff(ordering, board, 2, Color.RED, 2, 1);
+		assertArrayEquals(new int[]{2, 5, 0, 1, 3, 4, 6}, order(ordering, board, 2, Color.RED, NO_MOVE));
+		cutoff(ordering, board, 2, Color.RED, 4, 1);
+		assertArrayEquals(new int[]{4, 2, 0, 1, 3, 5, 6}, order(ordering, board, 2, Color.RED, NO_MOVE));
+
+		ordering.newSearch(board);
+		assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6}, order(ordering, board, 2, Color.RED, NO_MOVE));
+	}
+
+	@Test
+	public void assertHistoryOrdersByDepthOfCutoffs() {
+		final Board board = Board.create(7, 6, 4, 2);
+		final MoveOrdering ordering = create(board, EnumSet.of(MoveOrdering.Heuristic.HISTORY));
+		cutoff(ordering, board, 1, Color.RED, 1, 3);
+		cutoff(ordering, board, 1, Color.RED, 1, 3);
+		cutoff(ordering, board, 3, Color.RED, 6, 5);
+		// 25 for column 6 against 18 for column 1, at every ply but only for the player of the cutoffs
+		assertArrayEquals(new int[]{6, 1, 0, 2, 3, 4, 5}, order(ordering, board, 0, Color.RED, NO_MOVE));
+		assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6}, order(ordering, board, 0, Color.YELLOW, NO_MOVE));
+
+		// Aged but kept by the next search
+		ordering.newSearch(board);
+		assertArrayEquals(new int[]{6, 1, 0, 2, 3, 4, 5}, order(ordering, board, 0, Color.RED, NO_MOVE));
+	}
+
+	@Test
+	public void assertHeuristicsArePrioritized() {
+		final Board board = Board.create(7, 6, 4, 2);
+		final MoveOrdering ordering = create(board, EnumSet.allOf(MoveOrdering.Heuristic.class));
+		// Column 0 gets a far higher history than the killer of ply 0, column 1
+		cutoff(ordering, board, 1, Color.RED, 0, 10);
+		cutoff(ordering, board, 0, Color.RED, 1, 1);
+		// Cached move, then killer, then history, then center first
+		assertArrayEquals(new int[]{6, 1, 0, 3, 2, 4, 5}, order(ordering, board, 0, Color.RED, 6));
+		assertArrayEquals(new int[]{1, 0, 3, 2, 4, 5, 6}, order(ordering, board, 0, Color.RED, NO_MOVE));
+		assertArrayEquals(new int[]{0, 1, 3, 2, 4, 5, 6}, order(ordering, board, 2, Color.RED, NO_MOVE));
+		assertArrayEquals(new int[]{3, 2, 4, 1, 5, 0, 6}, order(ordering, board, 2, Color.YELLOW, NO_MOVE));
+	}
+
+	@Test
+	public void assertFirstMoveCutoffIsCreditedToItsHeuristic() {
+		final Board board = Board.create(7, 6, 4, 2);
+		final MoveOrdering ordering = create(board, EnumSet.allOf(MoveOrdering.Heuristic.class));
+
+		// Placed first by the cached move, even though it is also the center column
+		order(ordering, board, 0, Color.RED, 3);
+		ordering.onCutoff(0, Color.RED, 0, 1);
+		assertEquals(1, ordering.getFirstMoveCutoffs(MoveOrdering.Heuristic.CACHED_MOVE));
+
+		// Column 3 is now the killer of ply 0
+		order(ordering, board, 0, Color.RED, NO_MOVE);
+		ordering.onCutoff(0, Color.RED, 0, 1);
+		assertEquals(1, ordering.getFirstMoveCutoffs(MoveOrdering.Heuristic.KILLER_MOVES));
+
+		// Column 3 has a history for red at every ply
+		order(ordering, board, 1, Color.RED, NO_MOVE);
+		ordering.onCutoff(1, Color.RED, 0, 1);
+		assertEquals(1, ordering.getFirstMoveCutoffs(MoveOrdering.Heuristic.HISTORY));
+
+		// Ply 3 has no killer and yellow no history yet
+		order(ordering, board, 3, Color.YELLOW, NO_MOVE);
+		ordering.onCutoff(3, Color.YELLOW, 0, 1);
+		assertEquals(1, ordering.getFirstMoveCutoffs(MoveOrdering.Heuristic.CENTER_FIRST));
+
+		// A cutoff on a later move is counted without any credit
+		order(ordering, board, 2, Color.RED, NO_MOVE);
+		ordering.onCutoff(2, Color.RED, 1, 1);
+		assertEquals(5, ordering.getCutoffCount());
+		assertEquals(0, ordering.getUnorderedFirstMoveCutoffs());
+
+		final MoveOrdering unordered = create(board, EnumSet.noneOf(MoveOrdering.Heuristic.class));
+		order(unordered, board, 0, Color.RED, NO_MOVE);
+		unordered.onCutoff(0, Color.RED, 0, 1);
+		assertEquals(1, unordered.getUnorderedFirstMoveCutoffs());
+
+		ordering.mergeStatistics(unordered);
+		assertEquals(6, ordering.getCutoffCount());
+		assertEquals(1, ordering.getUnorderedFirstMoveCutoffs());
+		ordering.resetStatistics();
+		assertEquals(0, ordering.getCutoffCount());
+		assertEquals(0, ordering.getFirstMoveCutoffs(MoveOrdering.Heuristic.CACHED_MOVE));
+	}
+}
@@ -0,0 +1,133 @@
+package org.minimax.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+	@Test
+	public void assertStoredDataIsUnpacked() {
+		final TranspositionTable table = new TranspositionTable(1);
+		table.store(123456789L, -1_000_000_000, 12, TranspositionTable.LOWER, 6);
+
+		final long data = table.probe(123456789L);
+		assertNotEquals(TranspositionTable.MISS, data);
+		assertEquals(-1_000_000_000, TranspositionTable.score(data));
+		assertEquals(12, TranspositionTable.depth(data));
+		assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+		assertEquals(6, TranspositionTable.bestMove(data));
+		assertEquals(TranspositionTable.MISS, table.probe(987654321L));
+	}
+
+	@Test
+	public void assertDeepestEntryIsKept() {
+		final TranspositionTable table = new TranspositionTable(1);
+		final long stride = table.getCapacity() / 2;
+		assertFalse(table.store(1L, 10, 8, TranspositionTable.EXACT, 0));
+		assertFalse(table.store(1L + stride, 20, 2, TranspositionTable.EXACT, 1));
+		// Replaces the shallow entry of the same generation in the always-replace slot
+		assertTrue(table.store(1L + 2 * stride, 30, 3, TranspositionTable.EXACT, 2));
+
+		assertEquals(10, TranspositionTable.score(table.probe(1L)));
+		assertEquals(TranspositionTable.MISS, table.probe(1L + stride));
+		assertEquals(30, TranspositionTable.score(table.probe(1L + 2 * stride)));
+	}
+
+	@Test
+	public void assertSamePositionIsNotEvicted() {
+		final TranspositionTable table = new TranspositionTable(1);
+		final long stride = table.getCapacity() / 2;
+		table.store(1L, 10, 8, TranspositionTable.EXACT, 0);
+		table.store(1L + stride, 30, 3, TranspositionTable.EXACT, 2);
+		// Overwriting the entry of the same position is not an eviction
+		assertFalse(table.store(1L + stride, 31, 3, TranspositionTable.EXACT, 2));
+
+		assertEquals(10, TranspositionTable.score(table.probe(1L)));
+		assertEquals(31, TranspositionTable.score(table.probe(1L + stride)));
+	}
+
+	@Test
+	public void assertPositionHoldsOneSlot() {
+		final TranspositionTable table = new TranspositionTable(1);
+		final long stride = table.getCapacity() / 2;
+		table.store(1L, 10, 8, TranspositionTable.EXACT, 0);
+		table.store(1L + stride, 20, 2, TranspositionTable.EXACT, 1);
+		// Deeper than the first slot, but the position already holds the second one
+		assertFalse(table.store(1L + stride, 21, 9, TranspositionTable.EXACT, 1));
+
+		assertEquals(10, TranspositionTable.score(table.probe(1L)));
+		assertEquals(21, TranspositionTable.score(table.probe(1L + stride)));
+		assertEquals(9, TranspositionTable.depth(table.probe(1L + stride)));
+	}
+
+	@Test
+	public void assertStaleEntryDoesNotWrapAround() {
+		final TranspositionTable table = new TranspositionTable(1);
+		final long stride = table.getCapacity() / 2;
+		table.store(1L, 10, 8, TranspositionTable.EXACT, 0);
+		for (int i = 0; i < 256; i++) {
+			table.newGeneration();
+		}
+		// Swept before its generation came back, so it is neither found nor counted as evicted
+		assertEquals(TranspositionTable.MISS, table.probe(1L));
+		assertFalse(table.store(1L + stride, 20, 2, TranspositionTable.EXACT, 1));
+		assertEquals(20, TranspositionTable.score(table.probe(1L + stride)));
+	}
+
+	@Test
+	public void assertStaleEntryIsReplacedFirst() {
+		final TranspositionTable table = new TranspositionTable(1);
+		final long stride = table.getCapacity() / 2;
+		table.store(1L, 10, 8, TranspositionTable.EXACT, 0);
+		table.store(2L, 20, 8, TranspositionTable.EXACT, 1);
+
+		table.newGeneration();
+		// Found again, so moved to the new generation
+		assertEquals(20, TranspositionTable.score(table.probe(2L)));
+
+		// Stale entries are not counted as evicted
+		assertFalse(table.store(1L + stride, 30, 2, TranspositionTable.EXACT, 2));
+		assertFalse(table.store(2L + stride, 40, 2, TranspositionTable.EXACT, 3));
+		assertEquals(TranspositionTable.MISS, table.probe(1L));
+		assertEquals(30, TranspositionTable.score(table.probe(1L + stride)));
+		assertEquals(20, TranspositionTable.score(table.probe(2L)));
+		assertEquals(40, TranspositionTable.score(table.probe(2L + stride)));
+	}
+
+	@Test
+	public void assertResetHidesPreviousEntries() {
+		final TranspositionTable table = new TranspositionTable(1);
+		final long stride = table.getCapacity() / 2;
+		table.store(1L, 10, 8, TranspositionTable.EXACT, 0);
+		table.store(1L + stride, 20, 2, TranspositionTable.EXACT, 1);
+		table.reset();
+		assertEquals(TranspositionTable.MISS, table.probe(1L));
+
+		// Still hidden by the next generations, and replaced without counting as evicted
+		table.newGeneration();
+		assertEquals(TranspositionTable.MISS, table.probe(1L + stride));
+		assertFalse(table.store(1L + 2 * stride, 30, 1, TranspositionTable.EXACT, 2));
+		assertEquals(30, TranspositionTable.score(table.probe(1L + 2 * stride)));
+
+		table.store(2L, 40, 1, TranspositionTable.EXACT, 3);
+		table.newGeneration();
+		assertEquals(40, TranspositionTable.score(table.probe(2L)));
+	}
+
+	@Test
+	public void assertSizeFollowsSearchDepth() {
+		assertEquals(1, TranspositionTable.getSizeInMb(7, 3, 32));
+		assertEquals(1, TranspositionTable.getSizeInMb(7, 5, 32));
+		assertEquals(8, TranspositionTable.getSizeInMb(7, 7, 32));
+		assertEquals(32, TranspositionTable.getSizeInMb(7, 12, 32));
+		assertEquals(32, TranspositionTable.getSizeInMb(7, Integer.MAX_VALUE, 48));
+	}
+
+	@Test
+	public void assertClearEmptiesTable() {
+		final TranspositionTable table = new TranspositionTable(1);
+		table.store(42L, 0, 1, TranspositionTable.UPPER, TranspositionTable.NO_MOVE);
+		table.clear();
+		assertEquals(TranspositionTable.MISS, table.probe(42L));
+	}
+}
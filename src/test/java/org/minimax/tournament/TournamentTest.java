@@ -0,0 +1,58 @@
+package org.minimax.tournament;
+
+import org.junit.jupiter.api.Test;
+import org.minimax.GameResult;
+import org.minimax.player.PlayerType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+	@Test
+	public void assertGauntletResults() throws InterruptedException {
+		final List<PlayerType> entrants = List.of(PlayerType.SIMPLE_MINIMAX_3, PlayerType.RANDOM, PlayerType.RANDOM);
+		final TournamentResult result = new Tournament(entrants, Tournament.Pairing.GAUNTLET, 6, 3, 5, 4, 3, 42L).run();
+
+		assertEquals(12, result.getWins(0) + result.getDraws(0) + result.getLosses(0));
+		for (int i = 1; i < entrants.size(); i++) {
+			assertEquals(6, result.getWins(i) + result.getDraws(i) + result.getLosses(i));
+		}
+		assertEquals(result.getWins(0), result.getLosses(1) + result.getLosses(2));
+		assertTrue(result.getWins(0) > result.getLosses(0));
+
+		final double[] ratings = result.getEloRatings();
+		assertEquals(0.0d, ratings[0] + ratings[1] + ratings[2], 1e-6);
+		assertTrue(ratings[0] > ratings[1] && ratings[0] > ratings[2]);
+		assertTrue(result.getMoveNanosPercentile(0, 50) <= result.getMoveNanosPercentile(0, 99));
+	}
+
+	@Test
+	public void assertSameSeedReplaysSameGames() throws InterruptedException {
+		final List<PlayerType> entrants = List.of(PlayerType.RANDOM, PlayerType.RANDOM);
+		final TournamentResult first = new Tournament(entrants, Tournament.Pairing.ROUND_ROBIN, 20, 1, 5, 4, 3, 7L).run();
+		final TournamentResult second = new Tournament(entrants, Tournament.Pairing.ROUND_ROBIN, 20, 4, 5, 4, 3, 7L).run();
+
+		for (int i = 0; i < entrants.size(); i++) {
+			assertEquals(first.getWins(i), second.getWins(i));
+			assertEquals(first.getDraws(i), second.getDraws(i));
+		}
+		assertArrayEquals(first.getEloRatings(), second.getEloRatings());
+	}
+
+	@Test
+	public void assertEloMatchesScore() {
+		final TournamentResult result = new TournamentResult(List.of(PlayerType.RANDOM, PlayerType.RANDOM));
+		// 3 wins and a loss, plus the prior draw, is a 70% score : about 147 Elo apart
+		final List<PlayerType> players = List.of(PlayerType.RANDOM, PlayerType.RANDOM);
+		for (int game = 0; game < 4; game++) {
+			final GameResult gameResult = new GameResult(game, 5, 4, 3, players, new int[0], new long[0], 0, game == 0 ? 1 : 0);
+			result.add(new Tournament.GameRecord(new int[]{0, 1}, gameResult));
+		}
+
+		final double[] ratings = result.getEloRatings();
+		assertEquals(400 * Math.log10(0.7 / 0.3), ratings[0] - ratings[1], 0.5);
+		assertEquals(0L, result.getMoveNanosPercentile(0, 50));
+	}
+}